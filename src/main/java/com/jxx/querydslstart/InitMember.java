@@ -1,37 +1,123 @@
 package com.jxx.querydslstart;
 
+import com.jxx.querydslstart.cache.UsernameBloomFilterInitializer;
 import com.jxx.querydslstart.entity.Member;
 import com.jxx.querydslstart.entity.Team;
+import com.jxx.querydslstart.partition.MemberPartitionLoader;
+import com.jxx.querydslstart.startup.ReadinessGate;
+import com.jxx.querydslstart.startup.SeedSnapshot;
+import com.jxx.querydslstart.startup.StartupProfiler;
 import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.file.Path;
+
+/**
+ * local 프로필의 초기 데이터. context 시작을 막지 않도록 시작이 끝난 뒤 별도 스레드에서 넣고, 끝날 때까지 readiness 를 막는다.
+ * - seed.mode=snapshot (기본) : 처음 한 번 persist 로 넣은 뒤 스냅샷(CSV)을 만들고, 다음부터는 스냅샷에서 한 번에 복원한다.
+ * - seed.mode=persist : 매번 JPA 로 한 건씩 persist 한다.
+ */
+@Slf4j
 @Profile("local")
 @Component
-@RequiredArgsConstructor
 public class InitMember {
 
+    static final String TASK = "seed";
+
     private final InitMemberService initMemberService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadinessGate readinessGate;
+    private final StartupProfiler startupProfiler;
+    private final UsernameBloomFilterInitializer usernameBloomFilterInitializer;
+    private final ObjectProvider<MemberPartitionLoader> memberPartitionLoader;
+    private final String mode;
+    private final int members;
+    private final SeedSnapshot snapshot;
+
+    public InitMember(InitMemberService initMemberService,
+                      JdbcTemplate jdbcTemplate,
+                      TransactionTemplate transactionTemplate,
+                      ReadinessGate readinessGate,
+                      StartupProfiler startupProfiler,
+                      UsernameBloomFilterInitializer usernameBloomFilterInitializer,
+                      ObjectProvider<MemberPartitionLoader> memberPartitionLoader,
+                      @Value("${seed.mode:snapshot}") String mode,
+                      @Value("${seed.members:100}") int members,
+                      @Value("${seed.snapshot.dir:build/seed}") String snapshotDir) {
+        this.initMemberService = initMemberService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.readinessGate = readinessGate;
+        this.startupProfiler = startupProfiler;
+        this.usernameBloomFilterInitializer = usernameBloomFilterInitializer;
+        this.memberPartitionLoader = memberPartitionLoader;
+        this.mode = mode;
+        this.members = members;
+        this.snapshot = new SeedSnapshot(Path.of(snapshotDir, "members-" + members));
+    }
 
     @PostConstruct
     public void init() {
-        initMemberService.init();
+        readinessGate.hold(TASK);
     }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void seedInBackground() {
+        Thread thread = new Thread(this::seed, "init-member");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void seed() {
+        long start = System.currentTimeMillis();
+        try (StartupProfiler.Phase phase = startupProfiler.track("seed").tag("mode", mode).tag("members", members)) {
+            if ("persist".equals(mode)) {
+                initMemberService.init(members);
+            } else if (snapshot.exists()) {
+                phase.tag("source", "snapshot");
+                snapshot.restore(jdbcTemplate, transactionTemplate);
+            } else {
+                phase.tag("source", "persist");
+                initMemberService.init(members);
+                snapshot.write(jdbcTemplate);
+            }
+
+            // JPA 를 거치지 않고 넣었으므로 username 캐시와 파티션을 다시 만든다.
+            usernameBloomFilterInitializer.rebuild();
+            memberPartitionLoader.ifAvailable(MemberPartitionLoader::rebuild);
+        } catch (RuntimeException e) {
+            // readiness 는 계속 막아 둔다.
+            log.error("seeding failed. mode={}", mode, e);
+            return;
+        }
+
+        log.info("seeded {} members. mode={}, elapsed={}ms", members, mode, System.currentTimeMillis() - start);
+        readinessGate.release(TASK);
+    }
+
     @Component
     static class InitMemberService {
         @PersistenceContext
         EntityManager em;
         @Transactional
-        public void init() {
+        public void init(int members) {
             Team teamA = new Team("teamA");
             Team teamB = new Team("teamB");
             em.persist(teamA);
             em.persist(teamB);
-            for (int i = 0; i < 100; i++) {
+            for (int i = 0; i < members; i++) {
                 Team selectedTeam = i % 2 == 0 ? teamA : teamB;
                 em.persist(new Member("member" + i, i, selectedTeam));
             }
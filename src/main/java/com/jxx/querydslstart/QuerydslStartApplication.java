@@ -2,12 +2,16 @@ package com.jxx.querydslstart;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class QuerydslStartApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(QuerydslStartApplication.class, args);
+        SpringApplication application = new SpringApplication(QuerydslStartApplication.class);
+        // 시작 단계별 소요 시간 기록 - GET /admin/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(10_000));
+        application.run(args);
     }
 
 }
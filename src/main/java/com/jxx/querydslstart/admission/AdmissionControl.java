@@ -0,0 +1,20 @@
+package com.jxx.querydslstart.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 동시 실행 한도를 적용한다. 같은 group 의 엔드포인트는 한도 하나를 같이 쓰고, cost 에 따라 그 중 쓸 수 있는 비율이 다르다.
+ * (같은 DB 를 쓰는 목록 검색과 id 조회가 한 한도 안에서 경쟁해야 비싼 요청이 몰릴 때 싼 요청의 자리가 남는다.)
+ * unfilteredCost - 검색 조건 없이(page, size, sort 만으로) 호출된 경우의 비용. 전체를 정렬/카운트하므로 더 비쌀 수 있다.
+ *                  cost 보다 싸게 지정하면 무시된다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdmissionControl {
+    String group() default "member";
+    Cost cost() default Cost.NORMAL;
+    Cost unfilteredCost() default Cost.CHEAP;
+}
@@ -0,0 +1,92 @@
+package com.jxx.querydslstart.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @AdmissionControl 의 group 마다 ConcurrencyLimiter 를 두고, 한도를 넘는 요청은 503 + Retry-After 로 바로 거절한다.
+ * 기다리게 하지 않으므로 과부하에서도 받아들인 요청은 평소와 비슷한 시간 안에 끝난다.
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED_AT = AdmissionInterceptor.class.getName() + ".startedAt";
+    private static final String LIMITER = AdmissionInterceptor.class.getName() + ".limiter";
+    private static final String COST = AdmissionInterceptor.class.getName() + ".cost";
+    private static final Set<String> PAGING_PARAMETERS = Set.of("page", "size", "sort");
+
+    private final Map<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    public AdmissionInterceptor(@Value("${admission.enabled:true}") boolean enabled,
+                                @Value("${admission.initial-limit:20}") int initialLimit,
+                                @Value("${admission.min-limit:4}") int minLimit,
+                                @Value("${admission.max-limit:200}") int maxLimit,
+                                @Value("${admission.tolerance:1.5}") double tolerance) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        AdmissionControl admission = handlerMethod.getMethodAnnotation(AdmissionControl.class);
+        if (admission == null) {
+            return true;
+        }
+
+        ConcurrencyLimiter limiter = limiters.computeIfAbsent(admission.group(),
+                group -> new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance));
+        Cost cost = isUnfiltered(request) ? admission.cost().max(admission.unfilteredCost()) : admission.cost();
+        if (!limiter.tryAcquire(cost)) {
+            throw new AdmissionRejectedException(endpoint(request), limiter.retryAfterSeconds(cost));
+        }
+
+        request.setAttribute(LIMITER, limiter);
+        request.setAttribute(COST, cost);
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(LIMITER) instanceof ConcurrencyLimiter limiter) {
+            long elapsed = System.nanoTime() - (long) request.getAttribute(STARTED_AT);
+            limiter.release((Cost) request.getAttribute(COST), elapsed, ex == null && response.getStatus() < 500);
+        }
+    }
+
+    public Map<String, ConcurrencyLimiter.State> states() {
+        Map<String, ConcurrencyLimiter.State> states = new TreeMap<>();
+        limiters.forEach((group, limiter) -> states.put(group, limiter.state()));
+        return states;
+    }
+
+    private static boolean isUnfiltered(HttpServletRequest request) {
+        return PAGING_PARAMETERS.containsAll(request.getParameterMap().keySet());
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,18 @@
+package com.jxx.querydslstart.admission;
+
+/**
+ * 동시 실행 한도를 넘어서 요청을 받지 않았을 때 발생한다.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String endpoint, long retryAfterSeconds) {
+        super("요청이 많아 처리할 수 없습니다. (" + endpoint + ")");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,139 @@
+package com.jxx.querydslstart.admission;
+
+import com.jxx.querydslstart.monitoring.LatencyHistogram;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 응답 시간을 보고 동시 실행 한도를 조정한다. (gradient 방식)
+ * - longRtt: 응답 시간의 장기 평균(지수 이동 평균). 부하가 없을 때의 응답 시간에 가깝다.
+ *   한도는 비용(Cost)이 다른 요청이 같이 쓰지만 longRtt 는 비용별로 따로 두고, 응답 시간은 같은 비용의 longRtt 와 비교한다.
+ *   (섞어서 평균을 내면 싼 요청이 끝날 때는 빨라 보이고 비싼 요청이 끝날 때는 느려 보여서 부하가 그대로여도 한도가 줄어든다)
+ * - 요청이 끝날 때마다 gradient = longRtt / 이번 응답 시간 (0.5 ~ 1.0) 를 구해서
+ *   newLimit = limit * gradient + queueSize 로 조정한다.
+ *   응답 시간이 평소와 같으면 queueSize 만큼 늘어나고, 느려지면 느려진 비율만큼 줄어든다.
+ * - 한도가 절반도 차지 않았을 때는 늘리지 않는다. (한가할 때 한도가 끝없이 커지지 않도록)
+ * 한도를 넘는 요청은 기다리지 않고 바로 거절하므로 받아들인 요청의 응답 시간은 부하가 몰려도 크게 늘지 않는다.
+ */
+public class ConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_WEIGHT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private volatile double limit;
+    private final double[] longRttNanos = new double[Cost.values().length];
+
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * 비용별 한도(limit * share) 안이면 자리를 차지하고 true. 기다리지 않는다.
+     */
+    public boolean tryAcquire(Cost cost) {
+        int allowed = Math.max(1, (int) (limit * cost.getShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 실패한 요청(5xx)은 응답 시간이 의미가 없으므로 한도 조정에 쓰지 않는다.
+     */
+    public void release(Cost cost, long elapsedNanos, boolean success) {
+        int current = inFlight.getAndDecrement();
+        latency.record(elapsedNanos);
+        if (success) {
+            update(cost, elapsedNanos, current);
+        }
+    }
+
+    private synchronized void update(Cost cost, long rttNanos, int inFlightAtStart) {
+        int index = cost.ordinal();
+        if (longRttNanos[index] == 0) {
+            longRttNanos[index] = rttNanos;
+            return;
+        }
+        double longRtt = longRttNanos[index] * (1 - LONG_RTT_WEIGHT) + rttNanos * LONG_RTT_WEIGHT;
+
+        // 오래 느린 상태가 이어지면 longRtt 도 따라 올라가서 한도가 다시 늘어나 버리므로, 너무 벌어지면 longRtt 를 낮춘다.
+        if (longRtt > rttNanos * 2) {
+            longRtt = rttNanos * 2;
+        }
+        longRttNanos[index] = longRtt;
+
+        double current = limit;
+        if (inFlightAtStart < current / 2 && rttNanos <= longRtt * tolerance) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rttNanos));
+        double queueSize = Math.sqrt(current);
+        double newLimit = current * gradient + queueSize;
+        newLimit = current * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    /**
+     * 거절된 비용의 평소 응답 시간으로 지금 들어와 있는 요청이 빠지는 시간을 어림한다. (최소 1초)
+     */
+    public long retryAfterSeconds(Cost cost) {
+        double rttSeconds;
+        synchronized (this) {
+            rttSeconds = longRttNanos[cost.ordinal()] / 1_000_000_000.0;
+        }
+        return Math.max(1, (long) Math.ceil(rttSeconds * inFlight.get() / Math.max(1, limit)));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public State state() {
+        Map<Cost, Long> longRttMicros = new EnumMap<>(Cost.class);
+        synchronized (this) {
+            for (Cost cost : Cost.values()) {
+                if (longRttNanos[cost.ordinal()] > 0) {
+                    longRttMicros.put(cost, (long) (longRttNanos[cost.ordinal()] / 1_000));
+                }
+            }
+        }
+        return new State(getLimit(), inFlight.get(), longRttMicros, rejected.sum(), latency.snapshot());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class State {
+        private final int limit;
+        private final int inFlight;
+        private final Map<Cost, Long> longRttMicros; // 응답을 받은 적 있는 비용만
+        private final long rejected;
+        private final LatencyHistogram.Snapshot admitted;
+    }
+}
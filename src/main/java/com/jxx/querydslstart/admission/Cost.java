@@ -0,0 +1,25 @@
+package com.jxx.querydslstart.admission;
+
+/**
+ * 요청 비용. 동시 실행 한도(limit) 중 사용할 수 있는 비율이 다르다.
+ * 한도에 가까워지면 비싼 요청부터 거절되고, 남은 자리는 싼 요청(id 조회 등)이 쓴다.
+ */
+public enum Cost {
+    CHEAP(1.0),
+    NORMAL(0.8),
+    EXPENSIVE(0.5);
+
+    private final double share;
+
+    Cost(double share) {
+        this.share = share;
+    }
+
+    public double getShare() {
+        return share;
+    }
+
+    public Cost max(Cost other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+}
@@ -0,0 +1,88 @@
+package com.jxx.querydslstart.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열용 Bloom filter. mightContain 이 false 면 절대 추가된 적이 없는 값이다.
+ * 비트 배열은 AtomicLongArray 라서 여러 스레드가 동시에 add / mightContain 해도 된다.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions 예상 원소 수
+     * @param falsePositiveRate  원하는 오탐률 (0 ~ 1)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitSize = Math.max(64, m);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((bitSize + 63) / 64));
+    }
+
+    public void add(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitSize);
+            long mask = 1L << index;
+            bits.getAndAccumulate((int) (index >>> 6), mask, (current, bit) -> current | bit);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitSize);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 현재 채워진 비트 비율로 계산한 오탐률 추정치 - (채워진 비트 / 전체 비트)^k
+     */
+    public double expectedFalsePositiveRate() {
+        long setBits = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            setBits += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) setBits / bitSize, hashCount);
+    }
+
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    // FNV-1a 64bit
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // murmur3 fmix64 - 두 번째 해시로 사용 (double hashing)
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash | 1;
+    }
+}
@@ -0,0 +1,30 @@
+package com.jxx.querydslstart.cache;
+
+import com.jxx.querydslstart.entity.Member;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Member 의 username 변경을 UsernameLookupCache 에 반영한다.
+ * PrePersist 를 사용해서 flush 전에도 Bloom filter 에 이름이 들어가도록 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberUsernameListener {
+
+    private final UsernameLookupCache usernameLookupCache;
+
+    @PrePersist
+    @PreUpdate
+    public void usernameWritten(Member member) {
+        usernameLookupCache.usernameWritten(member.getUsername());
+    }
+
+    @PostRemove
+    public void removed(Member member) {
+        usernameLookupCache.evict(member.getUsername());
+    }
+}
@@ -0,0 +1,27 @@
+package com.jxx.querydslstart.cache;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UsernameBloomFilterInitializer {
+
+    private final EntityManager em;
+    private final UsernameLookupCache usernameLookupCache;
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Long count = em.createQuery("select count(m) from Member m", Long.class).getSingleResult();
+        usernameLookupCache.rebuild(count, () -> em.createQuery("select m.username from Member m", String.class).getResultStream());
+        log.info("username bloom filter rebuilt. usernames={}, elapsed={}ms", count, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,23 @@
+package com.jxx.querydslstart.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UsernameCacheStats {
+
+    private final boolean bloomFilterReady;
+    private final long bloomFilterBits;
+    private final int bloomFilterHashes;
+    private final double expectedFalsePositiveRate;
+    private final double observedFalsePositiveRate; // bloom filter 가 통과시켰지만 DB 에 없었던 비율 (없는 이름 조회 기준)
+
+    private final long lookups;
+    private final long bloomNegatives;  // DB 조회 없이 바로 빈 결과를 반환한 횟수
+    private final long cacheHits;
+    private final long cacheMisses;
+    private final long bypassed;        // 쓰기 트랜잭션 안이라 캐시를 사용하지 않은 횟수
+    private final double hitRatio;
+    private final int cachedUsernames;
+}
@@ -0,0 +1,207 @@
+package com.jxx.querydslstart.cache;
+
+import com.jxx.querydslstart.entity.Member;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * username -> member id 캐시와 전체 username 에 대한 Bloom filter.
+ * - Bloom filter 에 없는 이름은 DB 를 조회하지 않고 바로 빈 결과를 반환한다.
+ * - 캐시에 있는 이름은 id 목록을 한 번의 PK in 조회로 읽어서 반환한다.
+ * - 결과가 없는 이름은 캐시하지 않는다. 조회와 커밋 후 evict 가 엇갈리면 빈 결과가 계속 남을 수 있기 때문이다.
+ *   (id 가 있는 결과는 resolve 에서 다시 확인하므로 오래된 값이 반환되지 않는다)
+ * - 쓰기 트랜잭션 안에서는 아직 flush 되지 않은 변경을 봐야 하므로 캐시를 사용하지 않는다. username 이 null 일 때도 사용하지 않는다.
+ *
+ * Bloom filter 는 시작할 때 UsernameBloomFilterInitializer 가 만들고, 이후 추가/변경은 MemberUsernameListener 가 반영한다.
+ * 벌크 update 처럼 엔티티 리스너를 거치지 않는 변경은 반영되지 않는다.
+ */
+@Component
+public class UsernameLookupCache {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final int maxCachedUsernames;
+    private final Map<String, List<Long>> idsByUsername = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+    private volatile BloomFilter building; // 다시 만드는 중에 추가된 이름도 놓치지 않도록 양쪽에 추가한다.
+    // 쓰기 트랜잭션이 아직 끝나지 않은 username. 다시 만들 때 DB 에서 읽히지 않으므로 교체 직전에 따로 넣는다.
+    private final Map<String, Integer> uncommitted = new ConcurrentHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder bloomNegatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    public UsernameLookupCache(@Value("${member.username-cache.max-size:100000}") int maxCachedUsernames) {
+        this.maxCachedUsernames = maxCachedUsernames;
+    }
+
+    public List<Member> findByUsername(String username, EntityManager em, Function<String, List<Member>> loader) {
+        if (username == null || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            bypassed.increment();
+            return loader.apply(username);
+        }
+
+        lookups.increment();
+        BloomFilter filter = bloomFilter;
+        if (filter != null && !filter.mightContain(username)) {
+            bloomNegatives.increment();
+            return List.of();
+        }
+
+        List<Long> ids = idsByUsername.get(username);
+        if (ids != null) {
+            List<Member> members = resolve(username, ids, em);
+            if (members != null) {
+                hits.increment();
+                return members;
+            }
+            idsByUsername.remove(username);
+        }
+
+        misses.increment();
+        List<Member> members = loader.apply(username);
+        if (members.isEmpty()) {
+            if (filter != null) {
+                falsePositives.increment();
+            }
+            return members;
+        }
+        if (idsByUsername.size() < maxCachedUsernames) {
+            idsByUsername.put(username, members.stream().map(Member::getId).toList());
+        }
+        return members;
+    }
+
+    /**
+     * 캐시된 id 가 삭제되었거나 이름이 바뀌었으면 null - 캐시를 버리고 다시 조회한다.
+     */
+    private List<Member> resolve(String username, List<Long> ids, EntityManager em) {
+        Map<Long, Member> found = em.createQuery("select m from Member m where m.id in :ids", Member.class)
+                .setParameter("ids", ids)
+                .getResultList()
+                .stream()
+                .collect(Collectors.toMap(Member::getId, Function.identity()));
+
+        List<Member> members = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Member member = found.get(id);
+            if (member == null || !Objects.equals(member.getUsername(), username)) {
+                return null;
+            }
+            members.add(member);
+        }
+        return members;
+    }
+
+    /**
+     * username 이 새로 생기거나 바뀔 때 호출된다. 커밋 후에도 한 번 더 지워서,
+     * 커밋 전에 다른 스레드가 캐시에 넣은 오래된 결과가 남지 않도록 한다.
+     */
+    public void usernameWritten(String username) {
+        if (username == null) {
+            return;
+        }
+
+        BloomFilter filter = bloomFilter;
+        if (filter != null) {
+            filter.add(username);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(username);
+        }
+
+        evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            uncommitted.merge(username, 1, Integer::sum);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    // 다시 만드는 중에 커밋됐으면 이미 DB 를 읽은 뒤일 수 있으므로 새 filter 에도 넣는다. (building 확인이 먼저)
+                    BloomFilter rebuilding = building;
+                    if (rebuilding != null) {
+                        rebuilding.add(username);
+                    }
+                    uncommitted.computeIfPresent(username, (name, count) -> count > 1 ? count - 1 : null);
+                }
+            });
+        }
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            idsByUsername.remove(username);
+        }
+    }
+
+    public void evictAll() {
+        idsByUsername.clear();
+    }
+
+    /**
+     * 전체 username 으로 Bloom filter 를 새로 만든다. 만드는 동안에도 기존 filter 는 계속 사용된다.
+     * 새 filter 에 빠지는 이름이 없어야 하므로(false negative 금지)
+     * - building 은 usernames 를 열기 전에 설정해서, 그 뒤에 쓰이거나 커밋된 이름은 모두 새 filter 에도 들어가게 하고
+     * - 그 전에 쓰였지만 아직 커밋되지 않아 DB 에서 읽히지 않은 이름은 교체 직전에 uncommitted 에서 넣는다.
+     */
+    public synchronized void rebuild(long expectedUsernames, Supplier<Stream<String>> usernames) {
+        BloomFilter next = new BloomFilter(Math.max(expectedUsernames * 2, 1_000), FALSE_POSITIVE_RATE);
+        building = next;
+        try (Stream<String> stream = usernames.get()) {
+            stream.filter(Objects::nonNull).forEach(next::add);
+            uncommitted.keySet().forEach(next::add);
+            bloomFilter = next;
+        } finally {
+            building = null;
+        }
+    }
+
+    public UsernameCacheStats stats() {
+        BloomFilter filter = bloomFilter;
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long negativeCount = bloomNegatives.sum();
+        long falsePositiveCount = falsePositives.sum();
+        return new UsernameCacheStats(
+                filter != null,
+                filter != null ? filter.getBitSize() : 0,
+                filter != null ? filter.getHashCount() : 0,
+                filter != null ? filter.expectedFalsePositiveRate() : 0,
+                ratio(falsePositiveCount, falsePositiveCount + negativeCount),
+                lookups.sum(),
+                negativeCount,
+                hitCount,
+                missCount,
+                bypassed.sum(),
+                ratio(hitCount, hitCount + missCount),
+                idsByUsername.size());
+    }
+
+    private double ratio(long count, long total) {
+        return total > 0 ? (double) count / total : 0;
+    }
+}
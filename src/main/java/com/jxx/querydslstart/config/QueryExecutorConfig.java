@@ -0,0 +1,27 @@
+package com.jxx.querydslstart.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 조회를 나눠서 병렬로 실행할 때 같이 쓰는 스레드 풀. (MemberJpaRepository.findAllByIds 의 청크 조회 등)
+ * 스레드마다 커넥션을 하나씩 쓰므로 커넥션 풀보다 작게 둔다.
+ */
+@Configuration
+public class QueryExecutorConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService queryExecutor(@Value("${query.executor.threads:4}") int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package com.jxx.querydslstart.config;
+
+import com.jxx.querydslstart.deadline.DeadlineAwareJpaTransactionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * 자동 설정의 JpaTransactionManager 대신 요청 마감 시각을 반영하는 트랜잭션 매니저를 사용한다.
+ */
+@Configuration
+public class TransactionConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        DeadlineAwareJpaTransactionManager transactionManager = new DeadlineAwareJpaTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
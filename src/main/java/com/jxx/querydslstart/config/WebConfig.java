@@ -0,0 +1,28 @@
+package com.jxx.querydslstart.config;
+
+import com.jxx.querydslstart.admission.AdmissionInterceptor;
+import com.jxx.querydslstart.deadline.DeadlineInterceptor;
+import com.jxx.querydslstart.monitoring.ConnectionUsageInterceptor;
+import com.jxx.querydslstart.monitoring.EntityLoadInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AdmissionInterceptor admissionInterceptor;
+    private final DeadlineInterceptor deadlineInterceptor;
+    private final EntityLoadInterceptor entityLoadInterceptor;
+    private final ConnectionUsageInterceptor connectionUsageInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor);
+        registry.addInterceptor(deadlineInterceptor);
+        registry.addInterceptor(entityLoadInterceptor);
+        registry.addInterceptor(connectionUsageInterceptor);
+    }
+}
@@ -0,0 +1,24 @@
+package com.jxx.querydslstart.controller;
+
+import com.jxx.querydslstart.admission.AdmissionInterceptor;
+import com.jxx.querydslstart.admission.ConcurrencyLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class AdmissionLimitController {
+
+    private final AdmissionInterceptor admissionInterceptor;
+
+    /**
+     * group 별 현재 동시 실행 한도, 실행 중인 요청 수, 거절 수, 받아들인 요청의 응답 시간
+     */
+    @GetMapping("/admin/admission")
+    public Map<String, ConcurrencyLimiter.State> states() {
+        return admissionInterceptor.states();
+    }
+}
@@ -0,0 +1,49 @@
+package com.jxx.querydslstart.controller;
+
+import com.jxx.querydslstart.admission.AdmissionRejectedException;
+import com.jxx.querydslstart.deadline.DeadlineExceededException;
+import com.jxx.querydslstart.export.ExportJobRejectedException;
+import com.jxx.querydslstart.repository.support.InvalidSortException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidSortException.class)
+    public Map<String, String> invalidSort(InvalidSortException e) {
+        return Map.of("message", e.getMessage());
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(ExportJobRejectedException.class)
+    public Map<String, String> exportJobRejected(ExportJobRejectedException e) {
+        return Map.of("message", e.getMessage());
+    }
+
+    /**
+     * 요청 처리 시간을 넘긴 경우 - 쿼리를 보내기 전에 막혔거나, DB 에서 timeout/취소된 경우
+     */
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class,
+            jakarta.persistence.QueryTimeoutException.class, TransactionTimedOutException.class})
+    public Map<String, String> deadlineExceeded(RuntimeException e) {
+        return Map.of("message", "요청 처리 시간을 초과했습니다.");
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, String>> admissionRejected(AdmissionRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("message", e.getMessage()));
+    }
+}
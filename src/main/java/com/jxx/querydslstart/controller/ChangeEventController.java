@@ -0,0 +1,21 @@
+package com.jxx.querydslstart.controller;
+
+import com.jxx.querydslstart.event.ChangeEventBus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class ChangeEventController {
+
+    private final ChangeEventBus changeEventBus;
+
+    /**
+     * 발행된 변경 이벤트 수, 버려진 수, 구독자별 밀린 이벤트 수
+     */
+    @GetMapping("/admin/change-events")
+    public ChangeEventBus.Stats stats() {
+        return changeEventBus.stats();
+    }
+}
@@ -0,0 +1,44 @@
+package com.jxx.querydslstart.controller;
+
+import com.jxx.querydslstart.monitoring.AdaptivePoolSizer;
+import com.jxx.querydslstart.monitoring.ConnectionPoolMonitor;
+import com.jxx.querydslstart.monitoring.ConnectionPoolReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class ConnectionPoolController {
+
+    private final ConnectionPoolMonitor connectionPoolMonitor;
+    private final AdaptivePoolSizer adaptivePoolSizer;
+
+    @GetMapping("/admin/connection-pool")
+    public ConnectionPoolReport report() {
+        return new ConnectionPoolReport(
+                connectionPoolMonitor.poolState(),
+                connectionPoolMonitor.connectionWait().snapshot(),
+                connectionPoolMonitor.usage(),
+                connectionPoolMonitor.endpoints(),
+                adaptivePoolSizer.state());
+    }
+
+    @DeleteMapping("/admin/connection-pool")
+    public ConnectionPoolReport clear() {
+        connectionPoolMonitor.clear();
+        return report();
+    }
+
+    /**
+     * 풀 크기 자동 조정을 켜거나 끈다. ex) PUT /admin/connection-pool/adaptive?enabled=true
+     */
+    @PutMapping("/admin/connection-pool/adaptive")
+    public ConnectionPoolReport adaptive(@RequestParam boolean enabled) {
+        adaptivePoolSizer.setEnabled(enabled);
+        return report();
+    }
+}
@@ -0,0 +1,37 @@
+package com.jxx.querydslstart.controller;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.export.ExportJob;
+import com.jxx.querydslstart.export.ExportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collection;
+
+@RestController
+@RequiredArgsConstructor
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+
+    @PostMapping("/exports")
+    public ResponseEntity<ExportJob> submit(@RequestBody MemberSearchCondition condition) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobService.submit(condition));
+    }
+
+    @GetMapping("/exports")
+    public Collection<ExportJob> findJobs() {
+        return exportJobService.findJobs();
+    }
+
+    @GetMapping("/exports/{jobId}")
+    public ResponseEntity<ExportJob> findJob(@PathVariable String jobId) {
+        return ResponseEntity.of(exportJobService.findJob(jobId));
+    }
+}
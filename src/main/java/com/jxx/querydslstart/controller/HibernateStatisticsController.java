@@ -0,0 +1,37 @@
+package com.jxx.querydslstart.controller;
+
+import com.jxx.querydslstart.monitoring.HibernateStatisticsReport;
+import com.jxx.querydslstart.monitoring.HibernateStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class HibernateStatisticsController {
+
+    private final HibernateStatisticsService hibernateStatisticsService;
+
+    @GetMapping("/admin/hibernate/statistics")
+    public HibernateStatisticsReport statistics() {
+        return hibernateStatisticsService.report();
+    }
+
+    /**
+     * 통계 수집을 켜거나 끈다. ex) PUT /admin/hibernate/statistics/enabled?value=true
+     */
+    @PutMapping("/admin/hibernate/statistics/enabled")
+    public HibernateStatisticsReport enable(@RequestParam boolean value) {
+        hibernateStatisticsService.setEnabled(value);
+        return hibernateStatisticsService.report();
+    }
+
+    @DeleteMapping("/admin/hibernate/statistics")
+    public HibernateStatisticsReport clear() {
+        hibernateStatisticsService.clear();
+        return hibernateStatisticsService.report();
+    }
+}
@@ -1,38 +1,107 @@
 package com.jxx.querydslstart.controller;
 
+import com.jxx.querydslstart.admission.AdmissionControl;
+import com.jxx.querydslstart.admission.Cost;
+import com.jxx.querydslstart.deadline.RequestTimeout;
+import com.jxx.querydslstart.dto.AgeStatsCondition;
+import com.jxx.querydslstart.dto.AgeStatsDto;
 import com.jxx.querydslstart.dto.MemberSearchCondition;
 import com.jxx.querydslstart.dto.MemberTeamDto;
+import com.jxx.querydslstart.ingest.MemberBatchIngester;
+import com.jxx.querydslstart.ingest.MemberBatchReport;
 import com.jxx.querydslstart.repository.MemberJpaRepository;
 import com.jxx.querydslstart.repository.MemberRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_LOOKUP_IDS = 10_000;
+
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberBatchIngester memberBatchIngester;
 
     @GetMapping("/v1/members")
+    @AdmissionControl(unfilteredCost = Cost.EXPENSIVE)
+    @RequestTimeout(millis = 2000)
     public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
         return memberJpaRepository.search(condition);
     }
 
     @GetMapping("/v2/members")
+    @AdmissionControl(unfilteredCost = Cost.EXPENSIVE)
+    @RequestTimeout(millis = 3000)
     public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
         return memberRepository.searchPageSimple(condition, pageable);
     }
 
     @GetMapping("/v3/members")
+    @AdmissionControl(unfilteredCost = Cost.EXPENSIVE)
+    @RequestTimeout(millis = 3000)
     public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
         return memberRepository.searchPageComplex(condition, pageable);
     }
-}
 
+    /**
+     * 팀 또는 전체 나이 통계와 비교해서 조회 ex) /v1/members/age-stats?scope=TEAM&measure=AVG&comparison=ABOVE
+     * 파라미터를 생략하면 기본값을 쓰지만, ?scope= 처럼 값을 비워서 보내면 null 로 바인딩되므로 400 으로 거절한다.
+     */
+    @GetMapping("/v1/members/age-stats")
+    @AdmissionControl
+    @RequestTimeout(millis = 3000)
+    public List<MemberTeamDto> searchByAgeStats(AgeStatsCondition condition) {
+        if (condition.getScope() == null || condition.getMeasure() == null || condition.getComparison() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "scope, measure, comparison 은 비워 둘 수 없습니다.");
+        }
+        return memberRepository.searchByAgeStats(condition);
+    }
+
+    @GetMapping("/teams/age-stats")
+    @RequestTimeout(millis = 3000)
+    public List<AgeStatsDto> teamAgeStats() {
+        return memberRepository.teamAgeStats();
+    }
 
+    @GetMapping("/members/age-stats")
+    @RequestTimeout(millis = 3000)
+    public AgeStatsDto globalAgeStats() {
+        return memberRepository.globalAgeStats();
+    }
+
+    /**
+     * id 목록으로 한 번에 조회 - 요청한 id 순서대로 반환하고 없는 id 는 빠진다.
+     */
+    @PostMapping("/members/lookup")
+    @AdmissionControl(cost = Cost.CHEAP)
+    @RequestTimeout(millis = 1000)
+    public List<MemberTeamDto> lookupMembers(@RequestBody List<Long> memberIds) {
+        if (memberIds.size() > MAX_LOOKUP_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "한 번에 조회할 수 있는 id 는 " + MAX_LOOKUP_IDS + "개까지입니다.");
+        }
+        return memberJpaRepository.findAllByIds(memberIds);
+    }
+
+    /**
+     * 한 줄에 회원 하나씩 NDJSON 으로 받아서 batch 단위로 저장한다.
+     * {"username":"member1","age":10,"teamName":"teamA"}
+     */
+    @PostMapping(value = "/members/batch", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public MemberBatchReport createMembers(InputStream body) throws IOException {
+        return memberBatchIngester.ingest(body);
+    }
+}
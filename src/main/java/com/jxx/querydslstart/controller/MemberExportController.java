@@ -0,0 +1,43 @@
+package com.jxx.querydslstart.controller;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.export.ExportResult;
+import com.jxx.querydslstart.export.MemberCsvExporter;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private final MemberCsvExporter memberCsvExporter;
+
+    /**
+     * 전체 검색 결과를 members.csv.gz 로 내려준다. (/v2/members 를 페이지마다 호출하지 않아도 된다)
+     * 처리량은 로그로 남기고, 클라이언트가 trailer 를 지원하면 응답 trailer 로도 내려준다.
+     */
+    @GetMapping("/members/export")
+    public void exportMembers(MemberSearchCondition condition, HttpServletResponse response) throws IOException {
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"members.csv.gz\"");
+
+        AtomicReference<ExportResult> result = new AtomicReference<>();
+        try {
+            response.setHeader(HttpHeaders.TRAILER, "X-Export-Rows, X-Export-Rows-Per-Second");
+            response.setTrailerFields(() -> result.get() == null ? Map.of() : Map.of(
+                    "X-Export-Rows", String.valueOf(result.get().getRows()),
+                    "X-Export-Rows-Per-Second", String.valueOf(result.get().getRowsPerSecond())));
+        } catch (IllegalStateException e) {
+            // HTTP/1.0 등 trailer 를 보낼 수 없는 응답 - 로그로만 남는다.
+        }
+
+        result.set(memberCsvExporter.export(condition, response.getOutputStream()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.jxx.querydslstart.controller;
+
+import com.jxx.querydslstart.admission.AdmissionControl;
+import com.jxx.querydslstart.admission.Cost;
+import com.jxx.querydslstart.deadline.RequestTimeout;
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.dto.MemberTeamDto;
+import com.jxx.querydslstart.partition.MemberPartitionLoader;
+import com.jxx.querydslstart.partition.PartitionedMemberSearch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "member.partition.enabled", havingValue = "true")
+public class MemberPartitionController {
+
+    private final MemberPartitionLoader memberPartitionLoader;
+    private final PartitionedMemberSearch partitionedMemberSearch;
+
+    /**
+     * /v3/members 와 같은 검색을 파티션 복제본에서 조회한다.
+     * 복제본은 커밋된 변경을 비동기로 따라가므로 방금 커밋한 변경이 잠깐 보이지 않을 수 있다. (최종적 일관성)
+     * 쓴 값을 바로 읽어야 하면 /v3/members 를 쓴다. 메인 DB 가 아닌 파티션 DB 를 읽으므로 한도는 따로 쓴다.
+     */
+    @GetMapping("/v3/members/partitioned")
+    @AdmissionControl(group = "member-partition", unfilteredCost = Cost.EXPENSIVE)
+    @RequestTimeout(millis = 3000)
+    public Page<MemberTeamDto> searchMembers(MemberSearchCondition condition, Pageable pageable) {
+        return partitionedMemberSearch.searchPage(condition, pageable);
+    }
+
+    /**
+     * 파티션별 member 행 수
+     */
+    @GetMapping("/admin/partitions")
+    public List<Long> counts() {
+        return memberPartitionLoader.counts();
+    }
+
+    @PostMapping("/admin/partitions/rebuild")
+    public List<Long> rebuild() {
+        return memberPartitionLoader.rebuild();
+    }
+}
@@ -0,0 +1,30 @@
+package com.jxx.querydslstart.controller;
+
+import com.jxx.querydslstart.startup.ReadinessGate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class ReadinessController {
+
+    private final ApplicationAvailability applicationAvailability;
+    private final ReadinessGate readinessGate;
+
+    /**
+     * 요청을 받을 수 있으면 200, 시작 작업(데이터 적재 등)이 남아 있으면 503
+     */
+    @GetMapping("/readiness")
+    public ResponseEntity<Map<String, Object>> readiness() {
+        ReadinessState state = applicationAvailability.getReadinessState();
+        HttpStatus status = state == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(Map.of("state", state, "pending", readinessGate.pending()));
+    }
+}
@@ -0,0 +1,24 @@
+package com.jxx.querydslstart.controller;
+
+import com.jxx.querydslstart.startup.StartupProfiler;
+import com.jxx.querydslstart.startup.StartupReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class StartupController {
+
+    private final StartupProfiler startupProfiler;
+
+    /**
+     * 시작 단계별 소요 시간. limit 를 주면 오래 걸린(selfMillis) 순서로 limit 개, 없으면 전체를 시작 순서대로
+     * ex) GET /admin/startup?limit=20
+     */
+    @GetMapping("/admin/startup")
+    public StartupReport startup(@RequestParam(defaultValue = "0") int limit) {
+        return startupProfiler.report(limit);
+    }
+}
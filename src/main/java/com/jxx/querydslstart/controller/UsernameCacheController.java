@@ -0,0 +1,32 @@
+package com.jxx.querydslstart.controller;
+
+import com.jxx.querydslstart.cache.UsernameBloomFilterInitializer;
+import com.jxx.querydslstart.cache.UsernameCacheStats;
+import com.jxx.querydslstart.cache.UsernameLookupCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class UsernameCacheController {
+
+    private final UsernameLookupCache usernameLookupCache;
+    private final UsernameBloomFilterInitializer usernameBloomFilterInitializer;
+
+    @GetMapping("/admin/username-cache")
+    public UsernameCacheStats stats() {
+        return usernameLookupCache.stats();
+    }
+
+    /**
+     * 벌크 update 등 리스너를 거치지 않은 변경이 있었을 때 Bloom filter 를 다시 만든다.
+     */
+    @PostMapping("/admin/username-cache/rebuild")
+    public UsernameCacheStats rebuild() {
+        usernameLookupCache.evictAll();
+        usernameBloomFilterInitializer.rebuild();
+        return usernameLookupCache.stats();
+    }
+}
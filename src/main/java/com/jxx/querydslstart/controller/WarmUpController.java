@@ -0,0 +1,24 @@
+package com.jxx.querydslstart.controller;
+
+import com.jxx.querydslstart.startup.WarmUpReport;
+import com.jxx.querydslstart.startup.WarmUpRunner;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class WarmUpController {
+
+    private final WarmUpRunner warmUpRunner;
+
+    /**
+     * 쿼리 종류별 첫 실행 시간과 warm-up 후 시간. warm-up 이 아직 끝나지 않았거나 꺼져 있으면 204
+     */
+    @GetMapping("/admin/warmup")
+    public ResponseEntity<WarmUpReport> warmUp() {
+        WarmUpReport report = warmUpRunner.report();
+        return report == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(report);
+    }
+}
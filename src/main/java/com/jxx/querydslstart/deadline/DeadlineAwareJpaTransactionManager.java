@@ -0,0 +1,38 @@
+package com.jxx.querydslstart.deadline;
+
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 요청에 마감 시각이 있으면 트랜잭션 timeout 을 남은 시간으로 줄인다.
+ * Hibernate 는 트랜잭션 timeout 의 남은 시간을 그 트랜잭션의 모든 JDBC statement 에 query timeout 으로 건다.
+ * Querydsl 이 아닌 Spring Data 메서드(findById 등)도 이렇게 마감 시각을 따른다.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return timeout;
+        }
+
+        // 이미 지났으면 여기서 던지지 않고(트랜잭션 생성 실패로 감싸진다) 최소값으로 시작한 뒤 쿼리에서 막는다.
+        int remaining = (int) Math.max(1, (deadline.remainingMillis() + 999) / 1000);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remaining : Math.min(timeout, remaining);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null
+                && TransactionSynchronizationManager.getResource(obtainEntityManagerFactory()) instanceof EntityManagerHolder holder) {
+            deadline.register(holder.getEntityManager().unwrap(Session.class));
+        }
+    }
+}
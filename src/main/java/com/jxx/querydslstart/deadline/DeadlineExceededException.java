@@ -0,0 +1,8 @@
+package com.jxx.querydslstart.deadline;
+
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(long budgetMillis) {
+        super("요청 처리 시간(" + budgetMillis + "ms)을 초과했습니다.");
+    }
+}
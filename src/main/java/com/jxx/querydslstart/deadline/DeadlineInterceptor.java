@@ -0,0 +1,84 @@
+package com.jxx.querydslstart.deadline;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * 요청마다 처리 시간(마감 시각)을 정한다.
+ * - 엔드포인트에 @RequestTimeout 이 있으면 그 값, 없으면 request.deadline.default-ms (0 이면 마감 없음)
+ * - X-Request-Timeout-Ms 헤더가 있으면 위 값보다 짧을 때만 적용한다. 클라이언트가 기다릴 시간을 알려주면 그 뒤의 DB 작업은 하지 않는다.
+ * - 어떤 경우에도 request.deadline.max-ms 를 넘지 않는다.
+ */
+@Component
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private final long defaultMillis;
+    private final long maxMillis;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "request-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DeadlineInterceptor(@Value("${request.deadline.default-ms:0}") long defaultMillis,
+                               @Value("${request.deadline.max-ms:30000}") long maxMillis) {
+        this.defaultMillis = defaultMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long budget = budget(request, handler);
+        if (budget > 0) {
+            RequestDeadline.start(Math.min(budget, maxMillis), scheduler);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestDeadline.clear();
+    }
+
+    private long budget(HttpServletRequest request, Object handler) {
+        long budget = defaultMillis;
+        if (handler instanceof HandlerMethod handlerMethod) {
+            RequestTimeout timeout = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), RequestTimeout.class);
+            if (timeout == null) {
+                timeout = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RequestTimeout.class);
+            }
+            if (timeout != null) {
+                budget = timeout.millis();
+            }
+        }
+
+        String header = request.getHeader(HEADER);
+        if (header != null) {
+            try {
+                long requested = Long.parseLong(header.trim());
+                if (requested > 0 && (budget <= 0 || requested < budget)) {
+                    budget = requested;
+                }
+            } catch (NumberFormatException e) {
+                // 잘못된 헤더는 무시한다.
+            }
+        }
+        return budget;
+    }
+}
@@ -0,0 +1,124 @@
+package com.jxx.querydslstart.deadline;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 현재 요청의 마감 시각. DeadlineInterceptor 가 요청 스레드에 설정한다.
+ * - 쿼리를 만들 때마다 남은 시간을 query timeout 으로 넘기므로, content 쿼리가 오래 걸리면 count 쿼리의 timeout 은 그만큼 짧아진다.
+ * - 남은 시간이 없으면 쿼리를 DB 에 보내지 않고 DeadlineExceededException 을 던진다.
+ * - 마감 시각이 되면 요청이 사용한 Session 의 실행 중인 쿼리를 취소한다. (JDBC timeout 은 초 단위라 그 사이를 메운다)
+ * - 요청을 나눠서 다른 스레드에서 실행하면 propagate 로 마감 시각을 넘긴다.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long budgetMillis;
+    private final long deadlineNanos;
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+    private ScheduledFuture<?> cancelTask;
+
+    private RequestDeadline(long budgetMillis) {
+        this.budgetMillis = budgetMillis;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    static RequestDeadline start(long budgetMillis, ScheduledExecutorService scheduler) {
+        RequestDeadline deadline = new RequestDeadline(budgetMillis);
+        deadline.cancelTask = scheduler.schedule(deadline::cancel, budgetMillis, TimeUnit.MILLISECONDS);
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    static void clear() {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.cancelTask.cancel(false);
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * 다른 스레드에서 실행할 작업에 호출한 스레드의 마감 시각을 넘긴다. 마감 시각이 없으면 task 를 그대로 반환한다.
+     * 작업 스레드에서는 시작할 때 남은 시간을 확인하고, 그 스레드에서 만든 쿼리에도 남은 시간이 적용된다.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return task;
+        }
+        return () -> {
+            RequestDeadline previous = CURRENT.get();
+            CURRENT.set(deadline);
+            try {
+                deadline.checkRemainingMillis();
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return cancelled || deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * 남은 시간을 반환한다. 이미 지났으면 예외를 던져서 DB 작업을 시작하지 않는다.
+     */
+    public long checkRemainingMillis() {
+        if (isExpired()) {
+            throw new DeadlineExceededException(budgetMillis);
+        }
+        return Math.max(1, remainingMillis());
+    }
+
+    /**
+     * JDBC query timeout 은 초 단위라 올림한다. (0 은 timeout 없음이 되므로 최소 1초)
+     */
+    public int remainingSeconds() {
+        return (int) Math.max(1, (checkRemainingMillis() + 999) / 1000);
+    }
+
+    public void register(Session session) {
+        if (session != null) {
+            sessions.add(session);
+        }
+    }
+
+    void cancel() {
+        cancelled = true;
+        for (Session session : sessions) {
+            try {
+                session.cancelQuery();
+            } catch (HibernateException | IllegalStateException e) {
+                // 이미 닫힌 세션이거나 실행 중인 쿼리가 없다.
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.jxx.querydslstart.deadline;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 엔드포인트별 요청 처리 시간. 요청 헤더(X-Request-Timeout-Ms)로 더 짧게 줄일 수 있다.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestTimeout {
+    long millis();
+}
@@ -0,0 +1,50 @@
+package com.jxx.querydslstart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 나이 통계와 비교해서 회원을 찾는 조건. ex) 팀 평균보다 나이가 많은 회원 - TEAM, AVG, ABOVE
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgeStatsCondition {
+
+    private Scope scope = Scope.TEAM;
+    private Measure measure = Measure.AVG;
+    private Comparison comparison = Comparison.ABOVE;
+
+    public enum Scope {
+        TEAM, GLOBAL
+    }
+
+    public enum Measure {
+        AVG("avg_age"), MAX("max_age");
+
+        private final String column;
+
+        Measure(String column) {
+            this.column = column;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+    }
+
+    public enum Comparison {
+        ABOVE(">"), AT_LEAST(">="), EQUAL("=");
+
+        private final String operator;
+
+        Comparison(String operator) {
+            this.operator = operator;
+        }
+
+        public String getOperator() {
+            return operator;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.jxx.querydslstart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 팀별(teamId, teamName 있음) 또는 전체(teamId, teamName 이 null) 나이 통계
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgeStatsDto {
+    private Long teamId;
+    private String teamName;
+    private long memberCount;
+    private Double avgAge;
+    private Integer maxAge;
+}
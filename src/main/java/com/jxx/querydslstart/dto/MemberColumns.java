@@ -0,0 +1,174 @@
+package com.jxx.querydslstart.dto;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 분석용 열(column) 단위 조회 결과. 행마다 MemberTeamDto 를 만들지 않고 값을 primitive 배열에 담는다.
+ * i 번째 회원은 memberIds[i], ages[i], teamIds[i], teamName(i), username(i) 이다.
+ * team 이름과 username 은 각각 teamNames, usernames 사전의 번호(teamNameCodes, usernameCodes)로 저장한다. (username 은 중복될 수 있다)
+ * 배열은 build 할 때 한 번 크기에 맞춰 복사하고, getter 는 그 배열을 복사하지 않고 그대로 반환하므로 받은 쪽에서 수정하지 않는다.
+ */
+@Getter
+public class MemberColumns {
+
+    public static final long NO_TEAM = -1L;
+    public static final int NO_TEAM_NAME = -1;
+    public static final int NO_USERNAME = -1;
+
+    private final int size;
+    private final long[] memberIds;
+    private final int[] ages;
+    private final long[] teamIds;
+    private final int[] teamNameCodes;
+    private final List<String> teamNames;
+    private final int[] usernameCodes;
+    private final List<String> usernames;
+
+    private MemberColumns(Builder builder) {
+        this.size = builder.size;
+        this.memberIds = Arrays.copyOf(builder.memberIds, size);
+        this.ages = Arrays.copyOf(builder.ages, size);
+        this.teamIds = Arrays.copyOf(builder.teamIds, size);
+        this.teamNameCodes = Arrays.copyOf(builder.teamNameCodes, size);
+        this.teamNames = List.copyOf(builder.teamNames);
+        this.usernameCodes = Arrays.copyOf(builder.usernameCodes, size);
+        this.usernames = List.copyOf(builder.usernames);
+    }
+
+    public String teamName(int row) {
+        int code = teamNameCodes[row];
+        return code == NO_TEAM_NAME ? null : teamNames.get(code);
+    }
+
+    public String username(int row) {
+        int code = usernameCodes[row];
+        return code == NO_USERNAME ? null : usernames.get(code);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 배열이 가득 차면 두 배로 늘린다. team id -> 사전 번호는 boxing 없이 open addressing 으로 찾는다.
+     * username 은 문자열이 키라서 HashMap 으로 찾는다.
+     */
+    public static class Builder {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private int size;
+        private long[] memberIds = new long[INITIAL_CAPACITY];
+        private int[] ages = new int[INITIAL_CAPACITY];
+        private long[] teamIds = new long[INITIAL_CAPACITY];
+        private int[] teamNameCodes = new int[INITIAL_CAPACITY];
+        private int[] usernameCodes = new int[INITIAL_CAPACITY];
+
+        private final List<String> teamNames = new ArrayList<>();
+        private long[] dictionaryKeys = new long[16];
+        private int[] dictionaryCodes = new int[16]; // code + 1, 0 은 빈 칸
+
+        private final List<String> usernames = new ArrayList<>();
+        private final Map<String, Integer> usernameDictionary = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public void add(long memberId, int age, long teamId, int teamNameCode, int usernameCode) {
+            if (size == memberIds.length) {
+                grow();
+            }
+            memberIds[size] = memberId;
+            ages[size] = age;
+            teamIds[size] = teamId;
+            teamNameCodes[size] = teamNameCode;
+            usernameCodes[size] = usernameCode;
+            size++;
+        }
+
+        /**
+         * 처음 보는 username 이면 사전에 추가한다. null 은 NO_USERNAME
+         */
+        public int usernameCode(String username) {
+            if (username == null) {
+                return NO_USERNAME;
+            }
+            Integer code = usernameDictionary.get(username);
+            if (code == null) {
+                code = usernames.size();
+                usernames.add(username);
+                usernameDictionary.put(username, code);
+            }
+            return code;
+        }
+
+        /**
+         * 처음 보는 team 이면 NO_TEAM_NAME 을 반환한다. 그때만 이름을 읽어서 addTeamName 으로 등록한다.
+         */
+        public int teamNameCode(long teamId) {
+            int mask = dictionaryKeys.length - 1;
+            for (int slot = hash(teamId) & mask; dictionaryCodes[slot] != 0; slot = (slot + 1) & mask) {
+                if (dictionaryKeys[slot] == teamId) {
+                    return dictionaryCodes[slot] - 1;
+                }
+            }
+            return NO_TEAM_NAME;
+        }
+
+        public int addTeamName(long teamId, String teamName) {
+            if ((teamNames.size() + 1) * 2 > dictionaryKeys.length) {
+                rehash();
+            }
+            int code = teamNames.size();
+            teamNames.add(teamName);
+            put(teamId, code);
+            return code;
+        }
+
+        public MemberColumns build() {
+            return new MemberColumns(this);
+        }
+
+        private void grow() {
+            int capacity = memberIds.length * 2;
+            memberIds = Arrays.copyOf(memberIds, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            teamIds = Arrays.copyOf(teamIds, capacity);
+            teamNameCodes = Arrays.copyOf(teamNameCodes, capacity);
+            usernameCodes = Arrays.copyOf(usernameCodes, capacity);
+        }
+
+        private void put(long teamId, int code) {
+            int mask = dictionaryKeys.length - 1;
+            int slot = hash(teamId) & mask;
+            while (dictionaryCodes[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            dictionaryKeys[slot] = teamId;
+            dictionaryCodes[slot] = code + 1;
+        }
+
+        private void rehash() {
+            long[] keys = dictionaryKeys;
+            int[] codes = dictionaryCodes;
+            dictionaryKeys = new long[keys.length * 2];
+            dictionaryCodes = new int[codes.length * 2];
+            for (int i = 0; i < keys.length; i++) {
+                if (codes[i] != 0) {
+                    put(keys[i], codes[i] - 1);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.jxx.querydslstart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberCreateRequest {
+    private String username;
+    private int age;
+    private String teamName;
+}
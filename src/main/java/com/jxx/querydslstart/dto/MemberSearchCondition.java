@@ -3,6 +3,8 @@ package com.jxx.querydslstart.dto;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 public class MemberSearchCondition {
@@ -12,6 +14,11 @@ public class MemberSearchCondition {
     private Integer ageGoe;
     private Integer ageLoe;
 
+    // 여러 값을 한 번에 조회할 때 사용 - IN 절로 변환된다. (?usernames=member1&usernames=member2)
+    private List<String> usernames;
+    private List<String> teamNames;
+    private List<Long> memberIds;
+
     public MemberSearchCondition(String username, String teamName, Integer ageGoe, Integer ageLoe) {
         this.username = username;
         this.teamName = teamName;
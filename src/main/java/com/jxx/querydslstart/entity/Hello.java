@@ -1,16 +1,21 @@
 package com.jxx.querydslstart.entity;
 
+import com.jxx.querydslstart.entity.support.StripedBlockIdGenerator;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 @Entity
 @Getter @Setter
 public class Hello {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(generator = "hello_id")
+    @GenericGenerator(name = "hello_id", strategy = StripedBlockIdGenerator.STRATEGY,
+            parameters = @Parameter(name = "sequence_name", value = "hello_seq"))
     private Long id;
 }
@@ -1,15 +1,29 @@
 package com.jxx.querydslstart.entity;
 
+import com.jxx.querydslstart.cache.MemberUsernameListener;
+import com.jxx.querydslstart.entity.support.StripedBlockIdGenerator;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 @Entity
+@Table(indexes = {
+        // 정렬 + id tiebreaker 까지 인덱스 순서로 읽을 수 있도록 member_id 를 뒤에 붙인다.
+        @Index(name = "idx_member_username", columnList = "username, member_id"),
+        @Index(name = "idx_member_age", columnList = "age, member_id")
+})
+@EntityListeners(MemberUsernameListener.class)
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id","username","age"})
 public class Member {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(generator = "member_id")
+    @GenericGenerator(name = "member_id", strategy = StripedBlockIdGenerator.STRATEGY,
+            parameters = @Parameter(name = "sequence_name", value = "member_seq"))
     @Column(name = "member_id")
     private Long id;
     private String username;
@@ -36,7 +50,10 @@ public class Member {
     }
 
     public void changeTeam(Team team) {
+        if (this.team != null && Hibernate.isInitialized(this.team)) {
+            this.team.removeMember(this);
+        }
         this.team = team;
-        team.getMembers().add(this);
+        team.addMember(this); // Team.members 를 초기화하지 않는다.
     }
 }
@@ -1,26 +1,62 @@
 package com.jxx.querydslstart.entity;
 
+import com.jxx.querydslstart.entity.support.StripedBlockIdGenerator;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id","name"})
 public class Team {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(generator = "team_id")
+    @GenericGenerator(name = "team_id", strategy = StripedBlockIdGenerator.STRATEGY,
+            parameters = @Parameter(name = "sequence_name", value = "team_seq"))
     private Long id;
     private String name;
 
+    /**
+     * 회원이 아주 많은 팀도 있으므로 extra lazy 로 둔다.
+     * 초기화 전에는 add 가 큐에 쌓이고(inverse 라 flush 때 SQL 없이 버려짐), size / contains 는 SQL 로 확인한다.
+     */
     @OneToMany(mappedBy = "team")
+    @LazyCollection(LazyCollectionOption.EXTRA)
     private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
         this.name = name;
     }
+
+    public void addMember(Member member) {
+        members.add(member);
+    }
+
+    /**
+     * 초기화되지 않은 컬렉션은 나중에 DB 에서 읽을 때 반영되므로 건드리지 않는다. (remove 는 컬렉션 전체를 읽는다)
+     */
+    public void removeMember(Member member) {
+        if (Hibernate.isInitialized(members)) {
+            members.remove(member);
+        }
+    }
+
+    public int memberCount() {
+        return members.size(); // 초기화 전이면 select count(member_id) ... where team_id = ?
+    }
+
+    public boolean hasMember(Member member) {
+        return members.contains(member); // 초기화 전이면 select 1 ... where team_id = ? and member_id = ?
+    }
 }
\ No newline at end of file
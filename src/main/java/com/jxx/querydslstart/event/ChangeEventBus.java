@@ -0,0 +1,190 @@
+package com.jxx.querydslstart.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 커밋된 Member / Team 변경을 ChangeRingBuffer 에 넣고, ChangeSubscriber 빈마다 전용 스레드가 batch 로 꺼내서 전달한다.
+ * - 엔티티 변경은 EntityChangeListener(Hibernate post-commit 리스너)가 넣는다.
+ * - Querydsl update / delete 는 ChangePublishingQueryFactory 의 clause 가,
+ *   deleteAllInBatch, @Modifying 쿼리는 RepositoryBulkChangePublisher 가 벌크 이벤트를 넣는다.
+ * - 그 밖에 Hibernate 이벤트가 없는 변경(JDBC insert, EntityManager 로 직접 만든 벌크 쿼리)은 쓰는 쪽에서 publishAfterCommit 을 호출한다.
+ * 구독자 스레드는 이벤트가 없으면 잠깐씩(최대 idle-park-ms) 쉬었다가 다시 확인한다.
+ * 구독자가 던진 예외로 스레드가 끝나지 않는다. 스레드가 끝나면 cursor 를 빼서 다른 구독자의 이벤트가 막히지 않게 한다.
+ */
+@Slf4j
+@Component
+public class ChangeEventBus {
+
+    private final ChangeRingBuffer<EntityChangeEvent> ringBuffer;
+    private final ObjectProvider<ChangeSubscriber> subscriberBeans;
+    private final int maxBatch;
+    private final long idleParkNanos;
+    private final Map<ChangeSubscriber, Consumer> consumers = new ConcurrentHashMap<>();
+
+    public ChangeEventBus(ObjectProvider<ChangeSubscriber> subscriberBeans,
+                          @Value("${change-events.capacity:65536}") int capacity,
+                          @Value("${change-events.max-batch:256}") int maxBatch,
+                          @Value("${change-events.idle-park-ms:5}") long idleParkMillis) {
+        this.ringBuffer = new ChangeRingBuffer<>(capacity);
+        this.subscriberBeans = subscriberBeans;
+        this.maxBatch = maxBatch;
+        this.idleParkNanos = TimeUnit.MILLISECONDS.toNanos(idleParkMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        subscriberBeans.orderedStream().forEach(this::subscribe);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        consumers.keySet().forEach(this::unsubscribe);
+    }
+
+    /**
+     * 트랜잭션 안이면 커밋된 뒤에, 밖이면 바로 넣는다. 롤백되면 넣지 않는다.
+     */
+    public void publishAfterCommit(EntityChangeEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(event);
+            }
+        });
+    }
+
+    public boolean publish(EntityChangeEvent event) {
+        return ringBuffer.publish(event);
+    }
+
+    public void subscribe(ChangeSubscriber subscriber) {
+        Consumer consumer = new Consumer(subscriber, ringBuffer.cursor());
+        consumers.put(subscriber, consumer);
+        consumer.thread.start();
+    }
+
+    public void unsubscribe(ChangeSubscriber subscriber) {
+        Consumer consumer = consumers.remove(subscriber);
+        if (consumer != null) {
+            consumer.running = false;
+            LockSupport.unpark(consumer.thread);
+            ringBuffer.remove(consumer.cursor);
+        }
+    }
+
+    public Stats stats() {
+        Map<String, SubscriberStats> subscribers = new TreeMap<>();
+        consumers.values().forEach(consumer -> subscribers.put(consumer.subscriber.name(), new SubscriberStats(
+                consumer.cursor.lag(), consumer.delivered.sum(), consumer.batches.sum(), consumer.failures.sum())));
+        return new Stats(ringBuffer.capacity(), ringBuffer.getPublished(), ringBuffer.getDropped(), subscribers);
+    }
+
+    private class Consumer implements Runnable {
+
+        private final ChangeSubscriber subscriber;
+        private final ChangeRingBuffer<EntityChangeEvent>.Cursor cursor;
+        private final Thread thread;
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private volatile boolean running = true;
+
+        Consumer(ChangeSubscriber subscriber, ChangeRingBuffer<EntityChangeEvent>.Cursor cursor) {
+            this.subscriber = subscriber;
+            this.cursor = cursor;
+            this.thread = new Thread(this, "change-events-" + subscriber.name());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                long parkNanos = 0;
+                while (running) {
+                    long missed = cursor.takeMissed();
+                    if (missed > 0) {
+                        log.warn("{} missed {} change events", subscriber.name(), missed);
+                        notifyMissed(missed);
+                    }
+
+                    int polled = cursor.poll(maxBatch, this::deliver);
+                    if (polled > 0) {
+                        parkNanos = 0;
+                        continue;
+                    }
+                    // 비어 있으면 짧게 쉬고, 계속 비어 있으면 idleParkNanos 까지 늘린다.
+                    parkNanos = Math.min(idleParkNanos, Math.max(50_000, parkNanos * 2));
+                    LockSupport.parkNanos(parkNanos);
+                }
+            } finally {
+                // Error 로 끝나도 멈춘 cursor 때문에 버퍼가 가득 찬 것으로 보여서 모든 publish 가 버려지지 않게 한다.
+                if (running) {
+                    log.error("{} change event consumer stopped", subscriber.name());
+                    consumers.remove(subscriber, this);
+                    ringBuffer.remove(cursor);
+                }
+            }
+        }
+
+        private void deliver(List<EntityChangeEvent> events) {
+            try {
+                subscriber.onChanges(events);
+            } catch (RuntimeException e) {
+                // 실패한 batch 는 다시 전달하지 않는다. 구독자가 놓친 것과 같으므로 onMissed 로 알린다.
+                failures.increment();
+                log.warn("{} failed to apply {} change events", subscriber.name(), events.size(), e);
+                notifyMissed(events.size());
+            }
+            delivered.add(events.size());
+            batches.increment();
+        }
+
+        private void notifyMissed(long count) {
+            try {
+                subscriber.onMissed(count);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("{} failed to recover from {} missed change events", subscriber.name(), count, e);
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Stats {
+        private final int capacity;
+        private final long published;
+        private final long dropped;
+        private final Map<String, SubscriberStats> subscribers;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SubscriberStats {
+        private final long lag;
+        private final long delivered;
+        private final long batches;
+        private final long failures;
+    }
+}
@@ -0,0 +1,101 @@
+package com.jxx.querydslstart.event;
+
+import com.jxx.querydslstart.event.EntityChangeEvent.Entity;
+import com.jxx.querydslstart.event.EntityChangeEvent.Type;
+import com.jxx.querydslstart.repository.support.DeadlineQueryFactory;
+import com.querydsl.core.types.EntityPath;
+import jakarta.persistence.EntityManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * update / delete 로 Member, Team 을 바꾸면 커밋된 뒤에 ChangeEventBus 로 벌크 변경을 알리는 DeadlineQueryFactory.
+ * 어떤 행이 바뀌었는지는 모르므로 ids 는 null 이다. 호출하는 쪽이 알면 changedIds 로 넘긴다.
+ * 마감 시각(timeout) 처리는 DeadlineQueryFactory 의 clause 를 그대로 쓴다.
+ */
+public class ChangePublishingQueryFactory extends DeadlineQueryFactory {
+
+    private final ChangeEventBus changeEventBus;
+
+    public ChangePublishingQueryFactory(EntityManager em, ChangeEventBus changeEventBus) {
+        super(em);
+        this.changeEventBus = changeEventBus;
+    }
+
+    @Override
+    public ChangeUpdateClause update(EntityPath<?> path) {
+        return new ChangeUpdateClause(em, path, changeEventBus);
+    }
+
+    @Override
+    public ChangeDeleteClause delete(EntityPath<?> path) {
+        return new ChangeDeleteClause(em, path, changeEventBus);
+    }
+
+    public static class ChangeUpdateClause extends DeadlineUpdateClause {
+
+        private final ChangePublisher publisher;
+
+        ChangeUpdateClause(EntityManager em, EntityPath<?> path, ChangeEventBus changeEventBus) {
+            super(em, path);
+            this.publisher = new ChangePublisher(changeEventBus, path, Type.UPDATE);
+        }
+
+        /**
+         * 바뀌는 행의 id 를 알면 넘긴다. 구독자가 전체를 다시 읽지 않아도 된다.
+         */
+        public ChangeUpdateClause changedIds(Collection<Long> ids) {
+            publisher.ids = ids;
+            return this;
+        }
+
+        @Override
+        public long execute() {
+            return publisher.afterExecute(super.execute());
+        }
+    }
+
+    public static class ChangeDeleteClause extends DeadlineDeleteClause {
+
+        private final ChangePublisher publisher;
+
+        ChangeDeleteClause(EntityManager em, EntityPath<?> path, ChangeEventBus changeEventBus) {
+            super(em, path);
+            this.publisher = new ChangePublisher(changeEventBus, path, Type.DELETE);
+        }
+
+        public ChangeDeleteClause changedIds(Collection<Long> ids) {
+            publisher.ids = ids;
+            return this;
+        }
+
+        @Override
+        public long execute() {
+            return publisher.afterExecute(super.execute());
+        }
+    }
+
+    private static class ChangePublisher {
+
+        private final ChangeEventBus changeEventBus;
+        private final Entity entity;
+        private final Type type;
+        private Collection<Long> ids;
+
+        ChangePublisher(ChangeEventBus changeEventBus, EntityPath<?> path, Type type) {
+            this.changeEventBus = changeEventBus;
+            this.entity = Entity.of(path.getType());
+            this.type = type;
+        }
+
+        long afterExecute(long affected) {
+            if (affected > 0 && entity != null) {
+                List<Long> changed = ids == null ? null : List.copyOf(new LinkedHashSet<>(ids));
+                changeEventBus.publishAfterCommit(EntityChangeEvent.bulk(entity, type, changed));
+            }
+            return affected;
+        }
+    }
+}
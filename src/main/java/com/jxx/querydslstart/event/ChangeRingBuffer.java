@@ -0,0 +1,140 @@
+package com.jxx.querydslstart.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 여러 스레드가 잠금 없이 쓰고, 구독자(Cursor)마다 자기 위치에서 batch 로 읽는 고정 크기 ring buffer.
+ * - 쓰기: 다음 순번을 CAS 로 잡고 칸에 넣은 뒤 그 칸의 순번을 기록(published)한다. 읽는 쪽은 순번이 맞는 칸까지만 읽는다.
+ * - 가장 느린 구독자가 아직 읽지 않은 칸은 덮어쓰지 않는다. 그럴 때는 기다리지 않고 버리고(false) 센다.
+ *   쓰는 쪽(커밋 직후의 요청 스레드)을 절대 막지 않기 위해서다. 버려진 만큼은 구독자에게 onMissed 로 알린다.
+ */
+public class ChangeRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final List<Cursor> cursors = new CopyOnWriteArrayList<>();
+
+    public ChangeRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public boolean publish(E event) {
+        while (true) {
+            long sequence = claimed.get();
+            if (sequence - minimumCursor(sequence) >= capacity()) {
+                dropped.increment();
+                // 가장 느린 구독자 때문에 버려지지만 모든 구독자가 이 이벤트를 받지 못하므로 모두에게 알린다.
+                for (Cursor cursor : cursors) {
+                    cursor.missed();
+                }
+                return false;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                int index = (int) (sequence & mask);
+                slots.set(index, event);
+                published.set(index, sequence);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 지금 이후에 쓰이는 이벤트부터 읽는 구독 위치
+     */
+    public Cursor cursor() {
+        Cursor cursor = new Cursor(claimed.get());
+        cursors.add(cursor);
+        return cursor;
+    }
+
+    public void remove(Cursor cursor) {
+        cursors.remove(cursor);
+    }
+
+    public long getPublished() {
+        return claimed.get();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private long minimumCursor(long defaultValue) {
+        long minimum = defaultValue;
+        for (Cursor cursor : cursors) {
+            minimum = Math.min(minimum, cursor.next.get());
+        }
+        return minimum;
+    }
+
+    public class Cursor {
+
+        private final AtomicLong next;
+        private final AtomicLong missed = new AtomicLong();
+
+        private Cursor(long next) {
+            this.next = new AtomicLong(next);
+        }
+
+        /**
+         * 이어서 쓰인 이벤트를 maxBatch 개까지 꺼내서 넘긴다. 한 구독자 스레드만 호출해야 한다.
+         * @return 꺼낸 개수
+         */
+        public int poll(int maxBatch, Consumer<List<E>> handler) {
+            long from = next.get();
+            List<E> batch = new ArrayList<>(Math.min(maxBatch, 64));
+            long sequence = from;
+            while (batch.size() < maxBatch) {
+                int index = (int) (sequence & mask);
+                if (published.get(index) != sequence) {
+                    break;
+                }
+                batch.add(slots.get(index));
+                sequence++;
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            handler.accept(batch);
+            next.set(sequence); // 처리가 끝난 뒤에 넘겨야 쓰는 쪽이 그 칸을 덮어쓰지 않는다.
+            return batch.size();
+        }
+
+        /**
+         * 마지막으로 확인한 뒤 버려진 이벤트 수. 확인하면 0 으로 돌아간다.
+         */
+        public long takeMissed() {
+            return missed.getAndSet(0);
+        }
+
+        public long lag() {
+            return claimed.get() - next.get();
+        }
+
+        private void missed() {
+            missed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.jxx.querydslstart.event;
+
+import java.util.List;
+
+/**
+ * ChangeEventBus 의 구독자. 빈으로 등록하면 구독자마다 전용 스레드가 모아진 이벤트를 batch 로 전달한다.
+ * 쓰는 트랜잭션과는 다른 스레드에서 호출되므로 오래 걸려도 쓰기는 느려지지 않는다. 대신 늦을수록 ring buffer 가 찬다.
+ */
+public interface ChangeSubscriber {
+
+    void onChanges(List<EntityChangeEvent> events);
+
+    /**
+     * 이 구독자가 따라오지 못해서 ring buffer 가 가득 차 이벤트가 버려졌다. 전체를 다시 읽어야 한다.
+     */
+    default void onMissed(long count) {
+    }
+
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
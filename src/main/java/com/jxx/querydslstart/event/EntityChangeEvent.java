@@ -0,0 +1,48 @@
+package com.jxx.querydslstart.event;
+
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.entity.Team;
+
+import java.util.List;
+
+/**
+ * 커밋된 Member / Team 변경.
+ * - 엔티티 하나의 변경이면 ids 는 한 건이다.
+ * - 벌크 update / delete, JDBC batch insert 는 bulk = true 이고 ids 에 영향받은 id 가 모두 담긴다.
+ *   어떤 행이 바뀌었는지 알 수 없으면 ids 는 null 이다. (구독자는 전체를 다시 읽어야 한다)
+ */
+public record EntityChangeEvent(Entity entity, Type type, List<Long> ids, boolean bulk) {
+
+    public enum Entity {
+        MEMBER, TEAM;
+
+        /**
+         * Member / Team 이 아니면 null
+         */
+        public static Entity of(Class<?> type) {
+            if (Member.class.isAssignableFrom(type)) {
+                return MEMBER;
+            }
+            if (Team.class.isAssignableFrom(type)) {
+                return TEAM;
+            }
+            return null;
+        }
+    }
+
+    public enum Type {
+        INSERT, UPDATE, DELETE
+    }
+
+    public static EntityChangeEvent of(Entity entity, Type type, Long id) {
+        return new EntityChangeEvent(entity, type, List.of(id), false);
+    }
+
+    public static EntityChangeEvent bulk(Entity entity, Type type, List<Long> ids) {
+        return new EntityChangeEvent(entity, type, ids == null ? null : List.copyOf(ids), true);
+    }
+
+    public boolean isUnknownRows() {
+        return ids == null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.jxx.querydslstart.event;
+
+import com.jxx.querydslstart.event.EntityChangeEvent.Entity;
+import com.jxx.querydslstart.event.EntityChangeEvent.Type;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Member / Team 의 insert, update, delete 를 커밋된 뒤에 ChangeEventBus 로 넣는다.
+ * Hibernate 는 이 리스너가 있는 엔티티의 변경만 트랜잭션 완료 때까지 모아 두었다가 커밋된 경우에만 호출한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityChangeListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory emf;
+    private final ChangeEventBus changeEventBus;
+
+    @PostConstruct
+    public void init() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return Entity.of(persister.getMappedClass()) != null;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getEntity(), Type.INSERT, event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getEntity(), Type.UPDATE, event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getEntity(), Type.DELETE, event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void publish(Object entity, Type type, Object id) {
+        Entity kind = Entity.of(entity.getClass());
+        if (kind != null && id instanceof Long memberOrTeamId) {
+            changeEventBus.publish(EntityChangeEvent.of(kind, type, memberOrTeamId));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.jxx.querydslstart.event;
+
+import com.jxx.querydslstart.event.EntityChangeEvent.Entity;
+import com.jxx.querydslstart.event.EntityChangeEvent.Type;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Spring Data 리포지토리의 벌크 변경(deleteAllInBatch, deleteAllByIdInBatch, @Modifying 쿼리)은 Hibernate 엔티티 이벤트가 없다.
+ * Member / Team 리포지토리 프록시에 advice 를 붙여서 커밋된 뒤에 어떤 행인지 모르는(ids = null) 벌크 이벤트를 보낸다.
+ */
+@Component
+public class RepositoryBulkChangePublisher implements BeanPostProcessor {
+
+    private static final Set<String> BATCH_DELETES = Set.of("deleteAllInBatch", "deleteAllByIdInBatch", "deleteInBatch");
+
+    private final ObjectProvider<ChangeEventBus> changeEventBus;
+
+    public RepositoryBulkChangePublisher(ObjectProvider<ChangeEventBus> changeEventBus) {
+        this.changeEventBus = changeEventBus;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, repository) -> {
+                Entity entity = Entity.of(repository.getDomainType());
+                if (entity != null) {
+                    proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                        Object result = invocation.proceed();
+                        Type type = bulkType(invocation.getMethod());
+                        if (type != null) {
+                            changeEventBus.getObject().publishAfterCommit(EntityChangeEvent.bulk(entity, type, null));
+                        }
+                        return result;
+                    });
+                }
+            }));
+        }
+        return bean;
+    }
+
+    /**
+     * 벌크 변경이 아니면 null. @Modifying 쿼리는 JPQL 의 첫 단어로 구분한다.
+     */
+    static Type bulkType(Method method) {
+        if (BATCH_DELETES.contains(method.getName())) {
+            return Type.DELETE;
+        }
+        if (!method.isAnnotationPresent(Modifying.class)) {
+            return null;
+        }
+        Query query = method.getAnnotation(Query.class);
+        String statement = query != null ? query.value().trim().toLowerCase(Locale.ROOT) : "";
+        if (statement.startsWith("delete")) {
+            return Type.DELETE;
+        }
+        return statement.startsWith("insert") ? Type.INSERT : Type.UPDATE;
+    }
+}
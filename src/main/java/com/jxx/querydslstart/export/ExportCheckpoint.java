@@ -0,0 +1,23 @@
+package com.jxx.querydslstart.export;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 내보내기 작업의 진행 상태. 청크를 하나 쓸 때마다 파일로 저장하고, 재시작하면 여기서부터 이어서 처리한다.
+ */
+@Data
+@NoArgsConstructor
+public class ExportCheckpoint {
+
+    private String id;
+    private MemberSearchCondition condition;
+    private ExportJob.Status status;
+    private long totalRows;
+    private long exportedRows;
+    private long lastMemberId;
+    private long bytesWritten; // 이 위치 뒤의 데이터는 checkpoint 이후에 쓰인 것이므로 재시작 시 잘라낸다.
+    private String error;
+    private long finishedAt; // 끝난 시각(epoch ms). 보관 기간이 지나면 작업과 파일을 지운다.
+}
@@ -0,0 +1,117 @@
+package com.jxx.querydslstart.export;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * 백그라운드 내보내기 작업. 진행 상황은 워커 스레드가 갱신하고 조회 API 가 읽는다.
+ */
+@Getter
+public class ExportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final MemberSearchCondition condition;
+    private volatile Status status;
+    private volatile long totalRows;
+    private volatile long exportedRows;
+    private volatile long lastMemberId;
+    private volatile long bytesWritten;
+    private volatile String error;
+    private volatile long finishedAt;
+
+    // 처리량/ETA 는 이번 실행에서 처리한 양으로 계산한다.
+    @Getter(AccessLevel.NONE)
+    private volatile long runStartedAt;
+    @Getter(AccessLevel.NONE)
+    private volatile long rowsAtRunStart;
+
+    ExportJob(String id, MemberSearchCondition condition) {
+        this.id = id;
+        this.condition = condition;
+        this.status = Status.QUEUED;
+    }
+
+    /**
+     * 끝나지 않은 작업은 워커가 다시 시작할 때까지 QUEUED 이다.
+     * 끝난 시각이 없는 이전 checkpoint 는 불러온 시각부터 보관 기간을 센다.
+     */
+    static ExportJob from(ExportCheckpoint checkpoint) {
+        ExportJob job = new ExportJob(checkpoint.getId(), checkpoint.getCondition());
+        if (checkpoint.getStatus() == Status.COMPLETED || checkpoint.getStatus() == Status.FAILED) {
+            job.status = checkpoint.getStatus();
+            job.finishedAt = checkpoint.getFinishedAt() > 0 ? checkpoint.getFinishedAt() : System.currentTimeMillis();
+        }
+        job.totalRows = checkpoint.getTotalRows();
+        job.exportedRows = checkpoint.getExportedRows();
+        job.lastMemberId = checkpoint.getLastMemberId();
+        job.bytesWritten = checkpoint.getBytesWritten();
+        job.error = checkpoint.getError();
+        return job;
+    }
+
+    ExportCheckpoint toCheckpoint() {
+        ExportCheckpoint checkpoint = new ExportCheckpoint();
+        checkpoint.setId(id);
+        checkpoint.setCondition(condition);
+        checkpoint.setStatus(status);
+        checkpoint.setTotalRows(totalRows);
+        checkpoint.setExportedRows(exportedRows);
+        checkpoint.setLastMemberId(lastMemberId);
+        checkpoint.setBytesWritten(bytesWritten);
+        checkpoint.setError(error);
+        checkpoint.setFinishedAt(finishedAt);
+        return checkpoint;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void start(long totalRows) {
+        this.status = Status.RUNNING;
+        this.totalRows = totalRows;
+        this.runStartedAt = System.currentTimeMillis();
+        this.rowsAtRunStart = exportedRows;
+    }
+
+    void chunkWritten(long rows, long lastMemberId, long bytesWritten) {
+        this.exportedRows += rows;
+        this.lastMemberId = lastMemberId;
+        this.bytesWritten = bytesWritten;
+    }
+
+    void complete() {
+        this.finishedAt = System.currentTimeMillis();
+        this.status = Status.COMPLETED;
+    }
+
+    void fail(Exception e) {
+        this.error = e.toString();
+        this.finishedAt = System.currentTimeMillis();
+        this.status = Status.FAILED;
+    }
+
+    public long getRowsPerSecond() {
+        long elapsed = System.currentTimeMillis() - runStartedAt;
+        if (status != Status.RUNNING || elapsed <= 0) {
+            return 0;
+        }
+        return (exportedRows - rowsAtRunStart) * 1000 / elapsed;
+    }
+
+    /**
+     * 남은 건수 / 현재 처리량. 처리량을 아직 알 수 없으면 null
+     */
+    public Long getEtaSeconds() {
+        long rowsPerSecond = getRowsPerSecond();
+        if (rowsPerSecond <= 0) {
+            return null;
+        }
+        return Math.max(0, totalRows - exportedRows) / rowsPerSecond;
+    }
+}
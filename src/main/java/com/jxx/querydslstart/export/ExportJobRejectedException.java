@@ -0,0 +1,11 @@
+package com.jxx.querydslstart.export;
+
+/**
+ * 워커와 대기열이 모두 차서 작업을 받을 수 없을 때 발생한다.
+ */
+public class ExportJobRejectedException extends RuntimeException {
+
+    public ExportJobRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,228 @@
+package com.jxx.querydslstart.export;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.dto.MemberTeamDto;
+import com.jxx.querydslstart.repository.MemberRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * HTTP 연결과 관계없이 회원 내보내기를 백그라운드에서 처리한다.
+ * - member id 순서로 chunkSize 건씩 읽어서(keyset) 파일 끝에 이어 쓴다.
+ * - 청크마다 파일을 디스크에 반영한 뒤 checkpoint 를 저장하므로, 재시작하면 마지막 청크 다음부터 이어서 처리한다.
+ * - 워커 수와 대기열 크기가 정해져 있어서 작업이 몰려도 DB 에 동시에 붙는 내보내기 수는 workers 를 넘지 않는다.
+ *   재시작 때 이어서 처리할 작업이 대기열보다 많으면 나머지는 pending 에 두었다가 작업이 끝날 때마다 넣는다.
+ * - 끝난 작업은 retention 동안 조회할 수 있고, 그 뒤에는 작업 목록과 디렉토리에서 지운다. (새 작업 등록, 목록 조회, 재시작 때 정리)
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+
+    private final MemberRepository memberRepository;
+    private final ExportJobStore store;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+    private final int chunkSize;
+    private final long retentionMillis;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Queue<ExportJob> pending = new ConcurrentLinkedQueue<>();
+
+    public ExportJobService(MemberRepository memberRepository,
+                            ExportJobStore store,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${export.job.workers:2}") int workers,
+                            @Value("${export.job.queue-capacity:16}") int queueCapacity,
+                            @Value("${export.job.chunk-size:10000}") int chunkSize,
+                            @Value("${export.job.retention-hours:24}") long retentionHours) {
+        this.memberRepository = memberRepository;
+        this.store = store;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.retentionMillis = TimeUnit.HOURS.toMillis(retentionHours);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "export-worker-" + threadNumber.incrementAndGet()));
+    }
+
+    public ExportJob submit(MemberSearchCondition condition) {
+        pruneFinished(System.currentTimeMillis());
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), condition);
+        store.save(job.toCheckpoint());
+        try {
+            enqueue(job);
+        } catch (RejectedExecutionException e) {
+            store.delete(job.getId());
+            throw new ExportJobRejectedException("대기 중인 내보내기 작업이 너무 많습니다. 잠시 후 다시 시도하세요.");
+        }
+        return job;
+    }
+
+    public Optional<ExportJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public Collection<ExportJob> findJobs() {
+        pruneFinished(System.currentTimeMillis());
+        return jobs.values();
+    }
+
+    /**
+     * 이전 실행에서 끝나지 않은 작업을 checkpoint 부터 다시 시작한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeJobs() {
+        for (ExportCheckpoint checkpoint : store.loadAll()) {
+            if (jobs.containsKey(checkpoint.getId())) {
+                continue;
+            }
+
+            ExportJob job = ExportJob.from(checkpoint);
+            if (job.isFinished()) {
+                jobs.put(job.getId(), job);
+                continue;
+            }
+
+            log.info("resume export job. id={}, lastMemberId={}, exportedRows={}", job.getId(), job.getLastMemberId(), job.getExportedRows());
+            jobs.put(job.getId(), job);
+            pending.add(job);
+        }
+        pruneFinished(System.currentTimeMillis());
+        submitPending();
+    }
+
+    /**
+     * 끝난 지 retention 이 지난 작업을 목록과 디렉토리(checkpoint, 결과 파일)에서 지운다.
+     */
+    void pruneFinished(long now) {
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || now - job.getFinishedAt() < retentionMillis) {
+                return false;
+            }
+            store.delete(job.getId());
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow(); // 진행 중인 작업은 RUNNING 상태로 남아 다음 시작 때 이어서 처리된다.
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void enqueue(ExportJob job) {
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+    }
+
+    /**
+     * 대기열에 자리가 있는 만큼 pending 작업을 넣는다. 자리가 없으면 다음 작업이 끝날 때 다시 시도한다.
+     */
+    private synchronized void submitPending() {
+        ExportJob job;
+        while ((job = pending.peek()) != null) {
+            ExportJob next = job;
+            try {
+                executor.execute(() -> run(next));
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+            pending.remove();
+        }
+    }
+
+    private void run(ExportJob job) {
+        try {
+            export(job);
+        } finally {
+            submitPending();
+        }
+    }
+
+    private void export(ExportJob job) {
+        MemberSearchCondition condition = job.getCondition();
+        try (FileChannel channel = FileChannel.open(store.dataFile(job.getId()), CREATE, WRITE)) {
+            channel.truncate(job.getBytesWritten()); // checkpoint 이후에 쓰인 데이터는 버리고 다시 쓴다.
+            channel.position(job.getBytesWritten());
+
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+            MemberCsvWriter csv = new MemberCsvWriter(writer);
+            if (job.getBytesWritten() == 0) {
+                csv.writeHeader();
+            }
+
+            // searchAfterId 와 같은 메인 member 테이블의 건수 (파티션 복제본은 읽지 않는다)
+            job.start(readOnlyTransaction.execute(status -> memberRepository.searchCount(condition)));
+
+            while (!Thread.currentThread().isInterrupted()) {
+                List<MemberTeamDto> rows = readOnlyTransaction.execute(status ->
+                        memberRepository.searchAfterId(condition, job.getLastMemberId(), chunkSize));
+
+                for (MemberTeamDto row : rows) {
+                    csv.write(row);
+                }
+                csv.flush();
+                channel.force(false);
+
+                long lastMemberId = rows.isEmpty() ? job.getLastMemberId() : rows.get(rows.size() - 1).getMemberId();
+                job.chunkWritten(rows.size(), lastMemberId, channel.position());
+                if (rows.size() < chunkSize) {
+                    job.complete();
+                }
+                store.save(job.toCheckpoint());
+
+                if (job.isFinished()) {
+                    log.info("export job finished. id={}, rows={}", job.getId(), job.getExportedRows());
+                    return;
+                }
+            }
+        } catch (ClosedByInterruptException e) {
+            log.info("export job interrupted. id={}, lastMemberId={}", job.getId(), job.getLastMemberId());
+        } catch (IOException | RuntimeException e) {
+            if (Thread.currentThread().isInterrupted() || executor.isShutdown()) {
+                // shutdownNow 의 interrupt 가 JDBC / IO 예외로 감싸져 온 경우. 실패로 남기지 않고 다음 시작 때 이어서 처리한다.
+                log.info("export job interrupted. id={}, lastMemberId={}", job.getId(), job.getLastMemberId());
+                return;
+            }
+            log.error("export job failed. id={}", job.getId(), e);
+            job.fail(e);
+            store.save(job.toCheckpoint());
+        }
+    }
+}
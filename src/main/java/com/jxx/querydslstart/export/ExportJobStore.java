@@ -0,0 +1,71 @@
+package com.jxx.querydslstart.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 작업 디렉토리에 {id}.csv (결과) 와 {id}.json (checkpoint) 을 저장한다.
+ * 시작할 때 디렉토리의 checkpoint 를 모두 이어서 처리하므로 인스턴스마다 다른 디렉토리를 써야 한다.
+ * 기본값은 실행 디렉토리 아래(./data/export-jobs)이다. (호스트 전체가 같이 쓰는 임시 디렉토리는 쓰지 않는다.)
+ */
+@Component
+public class ExportJobStore {
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+
+    public ExportJobStore(ObjectMapper objectMapper,
+                          @Value("${export.job.dir:./data/export-jobs}") String directory) throws IOException {
+        this.objectMapper = objectMapper;
+        this.directory = Files.createDirectories(Path.of(directory));
+    }
+
+    public Path dataFile(String jobId) {
+        return directory.resolve(jobId + ".csv");
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 rename 해서, 저장 도중 종료되어도 이전 checkpoint 가 깨지지 않도록 한다.
+     */
+    public void save(ExportCheckpoint checkpoint) {
+        Path target = directory.resolve(checkpoint.getId() + ".json");
+        Path temp = directory.resolve(checkpoint.getId() + ".json.tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), checkpoint);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public List<ExportCheckpoint> loadAll() {
+        List<ExportCheckpoint> checkpoints = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path file : files) {
+                checkpoints.add(objectMapper.readValue(file.toFile(), ExportCheckpoint.class));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return checkpoints;
+    }
+
+    public void delete(String jobId) {
+        try {
+            Files.deleteIfExists(directory.resolve(jobId + ".json"));
+            Files.deleteIfExists(dataFile(jobId));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
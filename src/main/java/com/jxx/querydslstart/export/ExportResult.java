@@ -0,0 +1,18 @@
+package com.jxx.querydslstart.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ExportResult {
+
+    private final long rows;
+    private final long elapsedMillis;
+
+    public long getRowsPerSecond() {
+        return elapsedMillis > 0 ? rows * 1000 / elapsedMillis : rows;
+    }
+}
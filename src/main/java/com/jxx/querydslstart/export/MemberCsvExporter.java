@@ -0,0 +1,62 @@
+package com.jxx.querydslstart.export;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.dto.MemberTeamDto;
+import com.jxx.querydslstart.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 검색 조건에 해당하는 회원 전체를 gzip 으로 압축한 CSV 로 내보낸다.
+ * 커서로 한 건씩 읽고 FLUSH_ROWS 마다 flush 하기 때문에 결과 크기와 관계없이 메모리 사용량이 일정하다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MemberCsvExporter {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    static final int FLUSH_ROWS = 10_000;
+
+    private final MemberRepository memberRepository;
+
+    @Transactional(readOnly = true)
+    public ExportResult export(MemberSearchCondition condition, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long rows = 0;
+
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE, true); // syncFlush - flush 할 때마다 압축된 데이터를 내보낸다.
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        MemberCsvWriter csv = new MemberCsvWriter(writer);
+        csv.writeHeader();
+
+        try (Stream<MemberTeamDto> stream = memberRepository.searchStream(condition)) {
+            Iterator<MemberTeamDto> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                csv.write(iterator.next());
+                if (++rows % FLUSH_ROWS == 0) {
+                    csv.flush();
+                }
+            }
+        }
+
+        writer.flush();
+        gzip.finish();
+
+        ExportResult result = new ExportResult(rows, System.currentTimeMillis() - start);
+        log.info("member export finished. condition={}, rows={}, elapsed={}ms, rows/s={}",
+                condition, result.getRows(), result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.jxx.querydslstart.export;
+
+import com.jxx.querydslstart.dto.MemberTeamDto;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * MemberTeamDto 를 CSV 한 줄로 쓴다.
+ * 행마다 String 을 만들지 않도록 StringBuilder 와 char[] 를 재사용한다.
+ */
+public class MemberCsvWriter {
+
+    public static final String HEADER = "member_id,username,age,team_id,team_name\n";
+
+    private final Writer out;
+    private final StringBuilder row = new StringBuilder(128);
+    private char[] chars = new char[128];
+
+    public MemberCsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeHeader() throws IOException {
+        out.write(HEADER);
+    }
+
+    public void write(MemberTeamDto dto) throws IOException {
+        row.setLength(0);
+        row.append(dto.getMemberId()).append(',');
+        appendText(dto.getUsername());
+        row.append(',').append(dto.getAge()).append(',');
+        if (dto.getTeamId() != null) {
+            row.append(dto.getTeamId());
+        }
+        row.append(',');
+        appendText(dto.getTeamName());
+        row.append('\n');
+
+        int length = row.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        row.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void appendText(String value) {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuote(value)) {
+            row.append(value);
+            return;
+        }
+
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    private boolean needsQuote(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
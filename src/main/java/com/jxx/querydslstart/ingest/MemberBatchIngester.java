@@ -0,0 +1,205 @@
+package com.jxx.querydslstart.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.jxx.querydslstart.cache.UsernameLookupCache;
+import com.jxx.querydslstart.dto.MemberCreateRequest;
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.entity.Team;
+import com.jxx.querydslstart.event.ChangeEventBus;
+import com.jxx.querydslstart.event.EntityChangeEvent;
+import com.jxx.querydslstart.event.EntityChangeEvent.Entity;
+import com.jxx.querydslstart.event.EntityChangeEvent.Type;
+import com.jxx.querydslstart.repository.support.InClauses;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * NDJSON 본문을 한 줄씩 읽어서 batchSize 건마다 하나의 트랜잭션으로 JDBC batch insert 한다.
+ * - 본문 전체를 메모리에 올리지 않는다. 한 번에 들고 있는 행은 batchSize 건뿐이다.
+ * - id 는 엔티티와 같은 StripedBlockIdGenerator 로 발급하므로 행마다 DB 를 조회하지 않는다.
+ * - team 이름 -> id 는 캐시하고, 없는 이름만 배치마다 한 번 조회한다. 없는 팀은 새로 만든다.
+ * - 배치 하나가 실패하면 그 배치만 롤백되고 다음 배치는 계속 처리한다.
+ *
+ * JPA 를 거치지 않으므로 엔티티 리스너 대신 UsernameLookupCache 에 직접 알린다.
+ * team 이름 캐시는 팀 이름이 바뀌지 않는다고 가정한다. (바뀌면 evictTeams)
+ */
+@Slf4j
+@Service
+public class MemberBatchIngester {
+
+    private static final String INSERT_MEMBER = "insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)";
+    private static final String INSERT_TEAM = "insert into team (id, name) values (?, ?)";
+
+    private final ObjectReader reader;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager em;
+    private final UsernameLookupCache usernameLookupCache;
+    private final ChangeEventBus changeEventBus;
+    private final IdentifierGenerator memberIdGenerator;
+    private final IdentifierGenerator teamIdGenerator;
+    private final int batchSize;
+    private final Map<String, Long> teamIds = new ConcurrentHashMap<>();
+
+    public MemberBatchIngester(ObjectMapper objectMapper,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               EntityManager em,
+                               EntityManagerFactory emf,
+                               UsernameLookupCache usernameLookupCache,
+                               ChangeEventBus changeEventBus,
+                               @Value("${member.batch.size:1000}") int batchSize) {
+        this.reader = objectMapper.readerFor(MemberCreateRequest.class);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.em = em;
+        this.usernameLookupCache = usernameLookupCache;
+        this.changeEventBus = changeEventBus;
+        this.batchSize = batchSize;
+
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        this.memberIdGenerator = sessionFactory.getMappingMetamodel().getEntityDescriptor(Member.class).getIdentifierGenerator();
+        this.teamIdGenerator = sessionFactory.getMappingMetamodel().getEntityDescriptor(Team.class).getIdentifierGenerator();
+    }
+
+    public MemberBatchReport ingest(InputStream body) throws IOException {
+        long start = System.currentTimeMillis();
+        List<MemberBatchResult> results = new ArrayList<>();
+        List<MemberCreateRequest> batch = new ArrayList<>(batchSize);
+        long nextRow = 1;
+        String parseError = null;
+
+        try (MappingIterator<MemberCreateRequest> rows = reader.readValues(body)) {
+            while (rows.hasNextValue()) {
+                batch.add(rows.nextValue());
+                if (batch.size() == batchSize) {
+                    results.add(write(results.size(), nextRow, batch));
+                    nextRow += batch.size();
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            parseError = (nextRow + batch.size()) + "번째 행을 읽을 수 없습니다: " + e.getOriginalMessage();
+        }
+
+        if (!batch.isEmpty()) {
+            results.add(write(results.size(), nextRow, batch));
+        }
+
+        MemberBatchReport report = new MemberBatchReport(results, System.currentTimeMillis() - start, parseError);
+        log.info("member batch ingest rows={} inserted={} batches={} elapsed={}ms ({} rows/s)",
+                report.getRows(), report.getInserted(), results.size(), report.getElapsedMillis(), report.getRowsPerSecond());
+        return report;
+    }
+
+    public void evictTeams() {
+        teamIds.clear();
+    }
+
+    private MemberBatchResult write(int batchNumber, long firstRow, List<MemberCreateRequest> rows) {
+        long start = System.currentTimeMillis();
+        Map<String, Long> resolvedTeams = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                resolvedTeams.putAll(resolveTeams(rows));
+                SessionImplementor session = em.unwrap(SessionImplementor.class);
+
+                List<Object[]> params = new ArrayList<>(rows.size());
+                for (int i = 0; i < rows.size(); i++) {
+                    MemberCreateRequest row = rows.get(i);
+                    if (!hasText(row.getUsername())) {
+                        throw new IllegalArgumentException((firstRow + i) + "번째 행에 username 이 없습니다.");
+                    }
+                    Long teamId = hasText(row.getTeamName()) ? resolvedTeams.get(row.getTeamName()) : null;
+                    params.add(new Object[]{memberIdGenerator.generate(session, null), row.getUsername(), row.getAge(), teamId});
+                }
+                jdbcTemplate.batchUpdate(INSERT_MEMBER, params);
+
+                for (MemberCreateRequest row : rows) {
+                    usernameLookupCache.usernameWritten(row.getUsername());
+                }
+                // JDBC 로 넣었으므로 Hibernate 이벤트가 없다. 커밋된 뒤에 직접 알린다.
+                changeEventBus.publishAfterCommit(EntityChangeEvent.bulk(Entity.MEMBER, Type.INSERT,
+                        params.stream().map(param -> (Long) param[0]).toList()));
+            });
+        } catch (RuntimeException e) {
+            log.warn("member batch {} (rows {} ~ {}) failed", batchNumber, firstRow, firstRow + rows.size() - 1, e);
+            return MemberBatchResult.failed(batchNumber, firstRow, rows.size(), System.currentTimeMillis() - start, e.getMessage());
+        }
+
+        teamIds.putAll(resolvedTeams); // 새로 만든 팀은 커밋된 뒤에만 캐시한다.
+        return MemberBatchResult.success(batchNumber, firstRow, rows.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 배치에 나온 team 이름의 id 를 찾는다. 캐시에 없는 이름만 조회하고, DB 에도 없으면 새로 만든다.
+     * 이름이 같은 팀이 여러 개면 id 가 가장 작은 팀을 사용한다.
+     */
+    private Map<String, Long> resolveTeams(List<MemberCreateRequest> rows) {
+        Map<String, Long> resolved = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (MemberCreateRequest row : rows) {
+            String teamName = row.getTeamName();
+            if (!hasText(teamName) || resolved.containsKey(teamName)) {
+                continue;
+            }
+            Long cached = teamIds.get(teamName);
+            if (cached != null) {
+                resolved.put(teamName, cached);
+            } else {
+                missing.add(teamName);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        for (List<String> chunk : InClauses.paddedChunks(missing)) {
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("select name, min(id) from team where name in (" + placeholders + ") group by name",
+                    (RowCallbackHandler) rs -> resolved.put(rs.getString(1), rs.getLong(2)), chunk.toArray());
+        }
+
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        List<Object[]> newTeams = new ArrayList<>();
+        for (String teamName : missing) {
+            if (!resolved.containsKey(teamName)) {
+                Long id = (Long) teamIdGenerator.generate(session, null);
+                newTeams.add(new Object[]{id, teamName});
+                resolved.put(teamName, id);
+            }
+        }
+        if (!newTeams.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TEAM, newTeams);
+            changeEventBus.publishAfterCommit(EntityChangeEvent.bulk(Entity.TEAM, Type.INSERT,
+                    newTeams.stream().map(team -> (Long) team[0]).toList()));
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,29 @@
+package com.jxx.querydslstart.ingest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class MemberBatchReport {
+
+    private final List<MemberBatchResult> batches;
+    private final long elapsedMillis;
+    private final String parseError; // 본문을 끝까지 읽지 못했을 때만 있다. 그 앞까지 읽은 행은 처리된다.
+
+    public long getRows() {
+        return batches.stream().mapToLong(MemberBatchResult::getRows).sum();
+    }
+
+    public long getInserted() {
+        return batches.stream().mapToLong(MemberBatchResult::getInserted).sum();
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis > 0 ? getInserted() * 1000 / elapsedMillis : getInserted();
+    }
+}
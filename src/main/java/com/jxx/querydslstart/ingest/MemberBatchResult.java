@@ -0,0 +1,30 @@
+package com.jxx.querydslstart.ingest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class MemberBatchResult {
+
+    private final int batch;
+    private final long firstRow; // 1 부터 시작하는 NDJSON 줄 번호 기준 (빈 줄 제외)
+    private final int rows;
+    private final int inserted;
+    private final long elapsedMillis;
+    private final String error;
+
+    static MemberBatchResult success(int batch, long firstRow, int rows, long elapsedMillis) {
+        return new MemberBatchResult(batch, firstRow, rows, rows, elapsedMillis, null);
+    }
+
+    static MemberBatchResult failed(int batch, long firstRow, int rows, long elapsedMillis, String error) {
+        return new MemberBatchResult(batch, firstRow, rows, 0, elapsedMillis, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
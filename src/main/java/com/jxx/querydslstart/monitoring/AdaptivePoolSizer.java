@@ -0,0 +1,149 @@
+package com.jxx.querydslstart.monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 커넥션 대기 시간과 SQL 실행 시간을 보고 Hikari maximumPoolSize 를 minSize ~ maxSize 안에서 조정한다.
+ * 기본은 꺼져 있다. (datasource.pool.adaptive.enabled=true 또는 PUT /admin/connection-pool/adaptive?enabled=true)
+ *
+ * interval 마다 직전 구간의 평균 대기 시간과 평균 SQL 실행 시간을 계산해서
+ * - 대기가 targetWait 를 넘고 SQL 실행 시간이 평소(baseline)와 비슷하면 DB 에 여유가 있다고 보고 25% 늘린다.
+ * - SQL 실행 시간이 평소의 2배를 넘으면 DB 가 포화된 것이므로 커넥션을 늘려도 DB 안에서 줄만 서게 된다. 하나 줄인다.
+ * - 대기가 거의 없고 절반 이상이 놀고 있으면 하나 줄인다.
+ * baseline 은 구간 평균 SQL 실행 시간의 최솟값을 천천히 따라간다.
+ */
+@Slf4j
+@Component
+public class AdaptivePoolSizer {
+
+    private final ConnectionPoolMonitor monitor;
+    private final int minSize;
+    private final int maxSize;
+    private final long targetWaitMicros;
+    private final long intervalMillis;
+    private final AtomicLong resizes = new AtomicLong();
+
+    private volatile boolean enabled;
+    private volatile String lastDecision = "none";
+    private ScheduledExecutorService scheduler;
+
+    private long lastWaitCount;
+    private long lastWaitNanos;
+    private long lastStatementCount;
+    private long lastStatementNanos;
+    private double baselineStatementMicros;
+
+    public AdaptivePoolSizer(ConnectionPoolMonitor monitor,
+                             @Value("${datasource.pool.adaptive.enabled:false}") boolean enabled,
+                             @Value("${datasource.pool.adaptive.min-size:4}") int minSize,
+                             @Value("${datasource.pool.adaptive.max-size:32}") int maxSize,
+                             @Value("${datasource.pool.adaptive.target-wait-ms:5}") long targetWaitMillis,
+                             @Value("${datasource.pool.adaptive.interval-ms:5000}") long intervalMillis) {
+        this.monitor = monitor;
+        this.enabled = enabled;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetWaitMicros = targetWaitMillis * 1_000;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "adaptive-pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public State state() {
+        return new State(enabled, minSize, maxSize, targetWaitMicros / 1_000, (long) baselineStatementMicros, resizes.get(), lastDecision);
+    }
+
+    synchronized void tick() {
+        LatencyHistogram wait = monitor.connectionWait();
+        long[] statements = monitor.statementTotals();
+        long waitCount = wait.getCount() - lastWaitCount;
+        long waitNanos = wait.getTotalNanos() - lastWaitNanos;
+        long statementCount = statements[0] - lastStatementCount;
+        long statementNanos = statements[1] - lastStatementNanos;
+        lastWaitCount = wait.getCount();
+        lastWaitNanos = wait.getTotalNanos();
+        lastStatementCount = statements[0];
+        lastStatementNanos = statements[1];
+
+        HikariDataSource pool = monitor.hikari();
+        HikariPoolMXBean mxBean = pool != null ? pool.getHikariPoolMXBean() : null;
+        if (!enabled || mxBean == null || waitCount == 0 || statementCount == 0) {
+            return;
+        }
+
+        double meanWaitMicros = waitNanos / 1_000.0 / waitCount;
+        double meanStatementMicros = statementNanos / 1_000.0 / statementCount;
+        baselineStatementMicros = baselineStatementMicros == 0
+                ? meanStatementMicros
+                : Math.min(meanStatementMicros, baselineStatementMicros * 1.05);
+
+        int size = pool.getMaximumPoolSize();
+        int target = size;
+        String reason;
+        if (meanStatementMicros > baselineStatementMicros * 2) {
+            target = Math.max(minSize, size - 1);
+            reason = "db saturated";
+        } else if (meanWaitMicros > targetWaitMicros || mxBean.getThreadsAwaitingConnection() > 0) {
+            target = Math.min(maxSize, size + Math.max(1, size / 4));
+            reason = "connection wait";
+        } else if (meanWaitMicros < targetWaitMicros / 10.0 && mxBean.getActiveConnections() < size / 2) {
+            target = Math.max(minSize, size - 1);
+            reason = "idle";
+        } else {
+            reason = "steady";
+        }
+
+        if (target != size) {
+            pool.getHikariConfigMXBean().setMaximumPoolSize(target);
+            if (pool.getMinimumIdle() > target) {
+                pool.getHikariConfigMXBean().setMinimumIdle(target);
+            }
+            resizes.incrementAndGet();
+            log.info("connection pool {} -> {} ({}, wait {}us, statement {}us, baseline {}us)",
+                    size, target, reason, (long) meanWaitMicros, (long) meanStatementMicros, (long) baselineStatementMicros);
+        }
+        lastDecision = "%s: %d -> %d (wait %dus, statement %dus)".formatted(reason, size, target, (long) meanWaitMicros, (long) meanStatementMicros);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class State {
+        private final boolean enabled;
+        private final int minSize;
+        private final int maxSize;
+        private final long targetWaitMillis;
+        private final long baselineStatementMicros;
+        private final long resizes;
+        private final String lastDecision;
+    }
+}
@@ -0,0 +1,224 @@
+package com.jxx.querydslstart.monitoring;
+
+import com.jxx.querydslstart.monitoring.ConnectionPoolReport.EndpointUsage;
+import com.jxx.querydslstart.monitoring.ConnectionPoolReport.PoolState;
+import com.jxx.querydslstart.monitoring.ConnectionPoolReport.Usage;
+import com.p6spy.engine.common.ConnectionInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 커넥션 풀 사용 현황을 모은다. p6spy 가 JdbcEventListener 빈을 자동으로 등록한다.
+ * - 커넥션 대기 시간: getConnection 에 걸린 시간 (풀이 비어 있으면 기다린 시간이 포함된다)
+ * - 사용 시간: SQL 종류(content / count / write)별 실행 시간과, 커넥션을 빌려서 돌려줄 때까지의 시간
+ *   커넥션 하나로 여러 종류를 실행했으면 write > content > count 순으로 하나로 분류한다.
+ * - 엔드포인트별: 위 값을 요청한 엔드포인트별로도 모은다. (ConnectionUsageInterceptor)
+ * 풀 상태(active / idle / 대기 스레드)는 Hikari 에서 읽는다.
+ */
+@Component
+public class ConnectionPoolMonitor extends SimpleJdbcEventListener {
+
+    public enum UsageType {
+        OTHER, COUNT, CONTENT, WRITE // 순서가 커넥션 분류 우선순위
+    }
+
+    private static final ThreadLocal<String> CURRENT_ENDPOINT = new ThreadLocal<>();
+    private static final String NO_ENDPOINT = "(background)";
+
+    private final ObjectProvider<DataSource> dataSource; // DataSource 를 감싸는 p6spy 가 이 빈을 먼저 필요로 하므로 나중에 꺼낸다.
+    private final LatencyHistogram connectionWait = new LatencyHistogram();
+    private final Map<UsageType, LatencyHistogram> statements = histograms();
+    private final Map<UsageType, LatencyHistogram> leases = histograms();
+    private final Map<ConnectionInformation, Lease> openLeases = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    private volatile HikariDataSource hikari;
+
+    public ConnectionPoolMonitor(ObjectProvider<DataSource> dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    static void beginRequest(String endpoint) {
+        CURRENT_ENDPOINT.set(endpoint);
+    }
+
+    static void endRequest() {
+        CURRENT_ENDPOINT.remove();
+    }
+
+    @Override
+    public void onAfterGetConnection(ConnectionInformation connectionInformation, SQLException e) {
+        if (e != null) {
+            return;
+        }
+        String endpoint = currentEndpoint();
+        long waitNanos = connectionInformation.getTimeToGetConnectionNs();
+        connectionWait.record(waitNanos);
+        endpointStats(endpoint).connectionWait.record(waitNanos);
+        openLeases.put(connectionInformation, new Lease(System.nanoTime()));
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        UsageType type = type(statementInformation.getSql());
+        statements.get(type).record(timeElapsedNanos);
+        endpointStats(currentEndpoint()).statements.get(type).record(timeElapsedNanos);
+
+        Lease lease = openLeases.get(statementInformation.getConnectionInformation());
+        if (lease != null && type.ordinal() > lease.type.ordinal()) {
+            lease.type = type;
+        }
+    }
+
+    @Override
+    public void onAfterConnectionClose(ConnectionInformation connectionInformation, SQLException e) {
+        Lease lease = openLeases.remove(connectionInformation);
+        if (lease != null) {
+            leases.get(lease.type).record(System.nanoTime() - lease.startNanos);
+        }
+    }
+
+    public LatencyHistogram connectionWait() {
+        return connectionWait;
+    }
+
+    /**
+     * 종류와 관계없이 모든 SQL 실행 시간의 합과 건수. (AdaptivePoolSizer 가 구간별 차이를 계산한다)
+     */
+    public long[] statementTotals() {
+        long count = 0;
+        long nanos = 0;
+        for (LatencyHistogram histogram : statements.values()) {
+            count += histogram.getCount();
+            nanos += histogram.getTotalNanos();
+        }
+        return new long[]{count, nanos};
+    }
+
+    public HikariDataSource hikari() {
+        if (hikari == null) {
+            try {
+                DataSource target = dataSource.getObject();
+                if (target.isWrapperFor(HikariDataSource.class)) {
+                    hikari = target.unwrap(HikariDataSource.class);
+                }
+            } catch (SQLException e) {
+                return null;
+            }
+        }
+        return hikari;
+    }
+
+    public PoolState poolState() {
+        HikariDataSource pool = hikari();
+        HikariPoolMXBean mxBean = pool != null ? pool.getHikariPoolMXBean() : null;
+        if (mxBean == null) {
+            return null; // 아직 커넥션을 한 번도 빌리지 않아 풀이 시작되지 않음
+        }
+        return new PoolState(
+                mxBean.getActiveConnections(),
+                mxBean.getIdleConnections(),
+                mxBean.getTotalConnections(),
+                mxBean.getThreadsAwaitingConnection(),
+                pool.getMaximumPoolSize(),
+                pool.getMinimumIdle());
+    }
+
+    public Map<String, Usage> usage() {
+        Map<String, Usage> usage = new LinkedHashMap<>();
+        for (UsageType type : UsageType.values()) {
+            usage.put(type.name(), new Usage(statements.get(type).snapshot(), leases.get(type).snapshot()));
+        }
+        return usage;
+    }
+
+    /**
+     * 커넥션 대기 시간 합이 큰 엔드포인트부터
+     */
+    public List<EndpointUsage> endpoints() {
+        return endpoints.entrySet().stream()
+                .map(entry -> entry.getValue().toUsage(entry.getKey()))
+                .sorted(Comparator.comparingLong((EndpointUsage usage) -> usage.getConnectionWait().getTotalMillis()).reversed())
+                .toList();
+    }
+
+    public void clear() {
+        connectionWait.reset();
+        statements.values().forEach(LatencyHistogram::reset);
+        leases.values().forEach(LatencyHistogram::reset);
+        endpoints.clear();
+    }
+
+    static UsageType type(String sql) {
+        if (sql == null) {
+            return UsageType.OTHER;
+        }
+        String normalized = sql.stripLeading().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("select count(")) {
+            return UsageType.COUNT;
+        }
+        if (normalized.startsWith("select") || normalized.startsWith("with")) {
+            return UsageType.CONTENT;
+        }
+        if (normalized.startsWith("insert") || normalized.startsWith("update") || normalized.startsWith("delete")
+                || normalized.startsWith("merge")) {
+            return UsageType.WRITE;
+        }
+        return UsageType.OTHER;
+    }
+
+    private static String currentEndpoint() {
+        String endpoint = CURRENT_ENDPOINT.get();
+        return endpoint != null ? endpoint : NO_ENDPOINT;
+    }
+
+    private EndpointStats endpointStats(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+    }
+
+    private static Map<UsageType, LatencyHistogram> histograms() {
+        Map<UsageType, LatencyHistogram> histograms = new EnumMap<>(UsageType.class);
+        for (UsageType type : UsageType.values()) {
+            histograms.put(type, new LatencyHistogram());
+        }
+        return histograms;
+    }
+
+    private static class Lease {
+        private final long startNanos;
+        private volatile UsageType type = UsageType.OTHER;
+
+        Lease(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+
+    private static class EndpointStats {
+        private final LatencyHistogram connectionWait = new LatencyHistogram();
+        private final Map<UsageType, LatencyHistogram> statements = histograms();
+
+        EndpointUsage toUsage(String endpoint) {
+            Map<String, LatencyHistogram.Snapshot> byType = new LinkedHashMap<>();
+            statements.forEach((type, histogram) -> {
+                if (histogram.getCount() > 0) {
+                    byType.put(type.name(), histogram.snapshot());
+                }
+            });
+            return new EndpointUsage(endpoint, connectionWait.snapshot(), byType);
+        }
+    }
+}
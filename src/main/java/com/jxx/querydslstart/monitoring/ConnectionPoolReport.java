@@ -0,0 +1,44 @@
+package com.jxx.querydslstart.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class ConnectionPoolReport {
+
+    private final PoolState pool;                          // 풀이 아직 시작되지 않았으면 null
+    private final LatencyHistogram.Snapshot connectionWait;
+    private final Map<String, Usage> usage;                // CONTENT / COUNT / WRITE / OTHER
+    private final List<EndpointUsage> endpoints;           // 커넥션 대기 시간 합 순
+    private final AdaptivePoolSizer.State adaptive;
+
+    @Getter
+    @AllArgsConstructor
+    public static class PoolState {
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int threadsAwaiting;
+        private final int maximumPoolSize;
+        private final int minimumIdle;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Usage {
+        private final LatencyHistogram.Snapshot statements; // SQL 실행 시간
+        private final LatencyHistogram.Snapshot leases;     // 커넥션을 빌려서 돌려줄 때까지의 시간
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class EndpointUsage {
+        private final String endpoint;
+        private final LatencyHistogram.Snapshot connectionWait;
+        private final Map<String, LatencyHistogram.Snapshot> statements;
+    }
+}
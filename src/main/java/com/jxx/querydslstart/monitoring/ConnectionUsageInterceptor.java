@@ -0,0 +1,24 @@
+package com.jxx.querydslstart.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 요청 스레드에 엔드포인트를 기록해서 커넥션 대기 / SQL 실행 시간을 엔드포인트별로 모을 수 있게 한다.
+ */
+@Component
+public class ConnectionUsageInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ConnectionPoolMonitor.beginRequest(EntityLoadInterceptor.endpoint(request));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ConnectionPoolMonitor.endRequest();
+    }
+}
@@ -0,0 +1,34 @@
+package com.jxx.querydslstart.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 요청 하나가 로딩한 엔티티 수를 엔드포인트별로 모은다. (Hibernate 통계가 켜져 있을 때만)
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityLoadInterceptor implements HandlerInterceptor {
+
+    private final HibernateStatisticsService hibernateStatisticsService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        hibernateStatisticsService.beginRequest();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        hibernateStatisticsService.endRequest(endpoint(request));
+    }
+
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,68 @@
+package com.jxx.querydslstart.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class HibernateStatisticsReport {
+
+    private final boolean enabled;
+    private final long sinceMillis;
+
+    private final long queryExecutionCount;
+    private final long queryExecutionMaxTime;
+    private final String queryExecutionMaxTimeQueryString;
+    private final long queryPlanCacheHitCount;
+    private final long queryPlanCacheMissCount;
+    private final double queryPlanCacheHitRatio;
+    private final long prepareStatementCount;
+
+    private final long entityLoadCount;
+    private final long entityFetchCount;
+    private final long collectionLoadCount;
+    private final long collectionFetchCount;
+
+    private final long secondLevelCacheHitCount;
+    private final long secondLevelCacheMissCount;
+    private final long secondLevelCachePutCount;
+
+    private final List<QueryStat> queries;          // 총 실행 시간 순
+    private final List<EntityStat> entities;
+    private final List<RequestLoadStat> requests;   // 엔드포인트별 요청당 엔티티 로딩 수
+
+    @Getter
+    @AllArgsConstructor
+    public static class QueryStat {
+        private final String query;
+        private final long executionCount;
+        private final long executionAvgTime;
+        private final long executionMaxTime;
+        private final long executionTotalTime;
+        private final long executionRowCount;
+        private final long planCacheHitCount;
+        private final long planCacheMissCount;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class EntityStat {
+        private final String entity;
+        private final long loadCount;
+        private final long fetchCount;
+        private final long insertCount;
+        private final long updateCount;
+        private final long deleteCount;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RequestLoadStat {
+        private final String endpoint;
+        private final long requests;
+        private final double avgEntityLoads;
+        private final long maxEntityLoads;
+    }
+}
@@ -0,0 +1,169 @@
+package com.jxx.querydslstart.monitoring;
+
+import com.jxx.querydslstart.monitoring.HibernateStatisticsReport.EntityStat;
+import com.jxx.querydslstart.monitoring.HibernateStatisticsReport.QueryStat;
+import com.jxx.querydslstart.monitoring.HibernateStatisticsReport.RequestLoadStat;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hibernate Statistics 를 켜고 끄고 조회한다. 기본은 꺼져 있다. (hibernate.generate_statistics=false)
+ * 꺼져 있으면 Hibernate 도 통계를 모으지 않고, 요청별 엔티티 로딩 수도 세지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class HibernateStatisticsService implements PostLoadEventListener {
+
+    private static final ThreadLocal<long[]> REQUEST_LOADS = new ThreadLocal<>();
+
+    private final EntityManagerFactory emf;
+    private final Map<String, RequestLoads> requestLoads = new ConcurrentHashMap<>();
+
+    private Statistics statistics;
+
+    @PostConstruct
+    public void init() {
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        statistics = sessionFactory.getStatistics();
+        sessionFactory.getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, this);
+    }
+
+    public boolean isEnabled() {
+        return statistics.isStatisticsEnabled();
+    }
+
+    public void setEnabled(boolean enabled) {
+        statistics.setStatisticsEnabled(enabled);
+    }
+
+    public void clear() {
+        statistics.clear();
+        requestLoads.clear();
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        long[] loads = REQUEST_LOADS.get();
+        if (loads != null) {
+            loads[0]++;
+        }
+    }
+
+    /**
+     * 요청 시작 - 통계가 켜져 있을 때만 현재 스레드의 엔티티 로딩 수를 센다.
+     */
+    void beginRequest() {
+        if (isEnabled()) {
+            REQUEST_LOADS.set(new long[1]);
+        }
+    }
+
+    void endRequest(String endpoint) {
+        long[] loads = REQUEST_LOADS.get();
+        if (loads == null) {
+            return;
+        }
+        REQUEST_LOADS.remove();
+        requestLoads.computeIfAbsent(endpoint, key -> new RequestLoads()).record(loads[0]);
+    }
+
+    public HibernateStatisticsReport report() {
+        List<QueryStat> queries = Arrays.stream(statistics.getQueries())
+                .map(query -> toQueryStat(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(QueryStat::getExecutionTotalTime).reversed())
+                .toList();
+
+        List<EntityStat> entities = Arrays.stream(statistics.getEntityNames())
+                .map(name -> toEntityStat(name, statistics.getEntityStatistics(name)))
+                .toList();
+
+        List<RequestLoadStat> requests = requestLoads.entrySet().stream()
+                .map(entry -> entry.getValue().toStat(entry.getKey()))
+                .sorted(Comparator.comparingDouble(RequestLoadStat::getAvgEntityLoads).reversed())
+                .toList();
+
+        long planHits = statistics.getQueryPlanCacheHitCount();
+        long planMisses = statistics.getQueryPlanCacheMissCount();
+
+        return new HibernateStatisticsReport(
+                statistics.isStatisticsEnabled(),
+                statistics.getStartTime(),
+                statistics.getQueryExecutionCount(),
+                statistics.getQueryExecutionMaxTime(),
+                statistics.getQueryExecutionMaxTimeQueryString(),
+                planHits,
+                planMisses,
+                planHits + planMisses > 0 ? (double) planHits / (planHits + planMisses) : 0,
+                statistics.getPrepareStatementCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(),
+                statistics.getCollectionLoadCount(),
+                statistics.getCollectionFetchCount(),
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                queries,
+                entities,
+                requests);
+    }
+
+    private QueryStat toQueryStat(String query, QueryStatistics stat) {
+        return new QueryStat(
+                query,
+                stat.getExecutionCount(),
+                stat.getExecutionAvgTime(),
+                stat.getExecutionMaxTime(),
+                stat.getExecutionTotalTime(),
+                stat.getExecutionRowCount(),
+                stat.getPlanCacheHitCount(),
+                stat.getPlanCacheMissCount());
+    }
+
+    private EntityStat toEntityStat(String name, EntityStatistics stat) {
+        return new EntityStat(
+                name,
+                stat.getLoadCount(),
+                stat.getFetchCount(),
+                stat.getInsertCount(),
+                stat.getUpdateCount(),
+                stat.getDeleteCount());
+    }
+
+    private static class RequestLoads {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder loads = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long count) {
+            requests.increment();
+            loads.add(count);
+            max.accumulateAndGet(count, Math::max);
+        }
+
+        RequestLoadStat toStat(String endpoint) {
+            long requestCount = requests.sum();
+            return new RequestLoadStat(endpoint, requestCount,
+                    requestCount > 0 ? (double) loads.sum() / requestCount : 0, max.get());
+        }
+    }
+}
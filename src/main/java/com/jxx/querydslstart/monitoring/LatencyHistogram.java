@@ -0,0 +1,89 @@
+package com.jxx.querydslstart.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 마이크로초 단위 2의 거듭제곱 구간 히스토그램. 여러 스레드가 잠금 없이 기록한다.
+ * 백분위는 구간의 상한값이므로 최대 2배까지 크게 나올 수 있다. (추세를 보는 용도)
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    public Snapshot snapshot() {
+        long total = count.sum();
+        return new Snapshot(
+                total,
+                total > 0 ? totalNanos.sum() / 1_000 / total : 0,
+                percentileMicros(0.5),
+                percentileMicros(0.99),
+                maxNanos.get() / 1_000,
+                totalNanos.sum() / 1_000_000);
+    }
+
+    public long percentileMicros(double quantile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += buckets.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long threshold = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= threshold) {
+                return i == 0 ? 0 : 1L << i; // i 번 구간은 [2^(i-1), 2^i) 마이크로초
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        private final long count;
+        private final long meanMicros;
+        private final long p50Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+        private final long totalMillis;
+    }
+}
@@ -0,0 +1,90 @@
+package com.jxx.querydslstart.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 메인 member 테이블을 member id 순서로 chunkSize 건씩 읽어서(keyset) team_id 에 맞는 파티션에 나눠 넣는다.
+ * 각 파티션의 staging 테이블(member_next)에 채운 뒤 MemberPartitions.swap 으로 한꺼번에 바꾸므로
+ * 다시 만드는 동안에도 검색은 이전 데이터 전체를 본다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.partition.enabled", havingValue = "true")
+public class MemberPartitionLoader {
+
+    private static final String SELECT_CHUNK = "select m.member_id, m.username, m.age, m.team_id, t.name from member m" +
+            " left join team t on t.id = m.team_id where m.member_id > ? order by m.member_id limit ?";
+    static final String INSERT = "insert into %s (member_id, username, age, team_id, team_name) values (?, ?, ?, ?, ?)";
+
+    private final MemberPartitions partitions;
+    private final JdbcTemplate mainJdbcTemplate;
+    private final int chunkSize;
+    private final boolean rebuildOnStartup;
+
+    public MemberPartitionLoader(MemberPartitions partitions,
+                                 JdbcTemplate mainJdbcTemplate,
+                                 @Value("${member.partition.chunk-size:10000}") int chunkSize,
+                                 @Value("${member.partition.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.partitions = partitions;
+        this.mainJdbcTemplate = mainJdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * @return 파티션별 행 수
+     */
+    public synchronized List<Long> rebuild() {
+        long start = System.currentTimeMillis();
+        List<Integer> all = partitions.all();
+        partitions.createStaging();
+        String insert = INSERT.formatted(MemberPartitions.STAGING_TABLE);
+
+        long lastMemberId = Long.MIN_VALUE;
+        long copied = 0;
+        while (true) {
+            List<Object[]> rows = mainJdbcTemplate.query(SELECT_CHUNK, (rs, rowNum) -> new Object[]{
+                    rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getObject(4, Long.class), rs.getString(5)
+            }, lastMemberId, chunkSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            List<List<Object[]>> byPartition = new ArrayList<>();
+            all.forEach(partition -> byPartition.add(new ArrayList<>()));
+            for (Object[] row : rows) {
+                byPartition.get(partitions.partitionOf((Long) row[3])).add(row);
+            }
+            partitions.scatter(all, (partition, store) -> store.batchUpdate(insert, byPartition.get(partition)));
+
+            lastMemberId = (Long) rows.get(rows.size() - 1)[0];
+            copied += rows.size();
+        }
+        partitions.swap();
+
+        List<Long> counts = counts();
+        log.info("member partitions rebuilt: {} rows in {}ms, rows per partition = {}", copied, System.currentTimeMillis() - start, counts);
+        return counts;
+    }
+
+    public List<Long> counts() {
+        return partitions.read(() -> partitions.scatter(partitions.all(),
+                (partition, store) -> store.queryForObject("select count(*) from member", Long.class)));
+    }
+}
@@ -0,0 +1,102 @@
+package com.jxx.querydslstart.partition;
+
+import com.jxx.querydslstart.event.ChangeSubscriber;
+import com.jxx.querydslstart.event.EntityChangeEvent;
+import com.jxx.querydslstart.event.EntityChangeEvent.Entity;
+import com.jxx.querydslstart.event.EntityChangeEvent.Type;
+import com.jxx.querydslstart.repository.support.InClauses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 커밋된 Member / Team 변경을 파티션에 반영한다. (ChangeEventBus 구독자)
+ * 바뀐 회원은 모든 파티션에서 지우고 메인 DB 의 현재 행을 다시 읽어서 team_id 에 맞는 파티션에 넣는다.
+ * 순서와 상관없이 최종 상태로 맞추므로 같은 회원의 변경이 한 batch 에 여러 번 있어도 한 번만 처리한다.
+ * 어떤 행이 바뀌었는지 모르는 이벤트가 오거나 이벤트를 놓치면 전체를 다시 만든다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.partition.enabled", havingValue = "true")
+public class MemberPartitionSync implements ChangeSubscriber {
+
+    private static final String INSERT = MemberPartitionLoader.INSERT.formatted(MemberPartitions.TABLE);
+
+    private final MemberPartitions partitions;
+    private final MemberPartitionLoader loader;
+    private final JdbcTemplate mainJdbcTemplate;
+
+    public MemberPartitionSync(MemberPartitions partitions, MemberPartitionLoader loader, JdbcTemplate mainJdbcTemplate) {
+        this.partitions = partitions;
+        this.loader = loader;
+        this.mainJdbcTemplate = mainJdbcTemplate;
+    }
+
+    @Override
+    public void onChanges(List<EntityChangeEvent> events) {
+        Set<Long> memberIds = new LinkedHashSet<>();
+        Set<Long> renamedTeamIds = new LinkedHashSet<>();
+        for (EntityChangeEvent event : events) {
+            if (event.isUnknownRows()) {
+                loader.rebuild();
+                return;
+            }
+            if (event.entity() == Entity.MEMBER) {
+                memberIds.addAll(event.ids());
+            } else if (event.type() == Type.UPDATE) {
+                renamedTeamIds.addAll(event.ids());
+            }
+        }
+
+        // rebuild 와 겹치지 않게 한다. (MemberPartitionLoader.rebuild 도 loader 로 동기화)
+        synchronized (loader) {
+            for (List<Long> chunk : InClauses.paddedChunks(memberIds)) {
+                syncMembers(chunk);
+            }
+            for (Long teamId : renamedTeamIds) {
+                syncTeamName(teamId);
+            }
+        }
+    }
+
+    @Override
+    public void onMissed(long count) {
+        loader.rebuild();
+    }
+
+    private void syncMembers(List<Long> memberIds) {
+        String placeholders = String.join(", ", Collections.nCopies(memberIds.size(), "?"));
+        Object[] ids = memberIds.toArray();
+        List<Object[]> rows = mainJdbcTemplate.query("select m.member_id, m.username, m.age, m.team_id, t.name from member m" +
+                        " left join team t on t.id = m.team_id where m.member_id in (" + placeholders + ")",
+                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getObject(4, Long.class), rs.getString(5)},
+                ids);
+
+        List<Integer> all = partitions.all();
+        List<List<Object[]>> byPartition = new ArrayList<>();
+        all.forEach(partition -> byPartition.add(new ArrayList<>()));
+        for (Object[] row : rows) {
+            byPartition.get(partitions.partitionOf((Long) row[3])).add(row);
+        }
+
+        partitions.scatter(all, (partition, store) -> {
+            store.update("delete from member where member_id in (" + placeholders + ")", ids);
+            return store.batchUpdate(INSERT, byPartition.get(partition));
+        });
+    }
+
+    private void syncTeamName(Long teamId) {
+        List<String> names = mainJdbcTemplate.queryForList("select name from team where id = ?", String.class, teamId);
+        if (!names.isEmpty()) {
+            partitions.store(partitions.partitionOf(teamId))
+                    .update("update member set team_name = ? where team_id = ?", names.get(0), teamId);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.jxx.querydslstart.partition;
+
+import com.jxx.querydslstart.deadline.RequestDeadline;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * team_id 로 나눈 member 저장소 목록. 저장소마다 별도의 DB(기본은 로컬 H2 파일)와 커넥션 풀을 가진다.
+ * 파티션에는 team 테이블이 없으므로 team 이름을 member 행에 같이 저장한다.
+ *
+ * 파티션은 검색 전용 읽기 복제본(read replica)이다. 원본은 계속 메인 DB 의 member 테이블이고
+ * 쓰기는 모두 메인 DB 로 간다. 파티션에는 MemberPartitionLoader(전체)와 MemberPartitionSync(커밋된 변경)만 쓴다.
+ * 메인 DataSource 자동 설정이 꺼지지 않도록 파티션 DataSource 는 빈으로 등록하지 않는다.
+ *
+ * member.partition.enabled=true 일 때만 만들어진다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.partition.enabled", havingValue = "true")
+public class MemberPartitions {
+
+    static final String TABLE = "member";
+    static final String STAGING_TABLE = "member_next";
+
+    private static final String CREATE_TABLE = "create table if not exists %s (member_id bigint primary key, username varchar(255), age integer not null, team_id bigint, team_name varchar(255))";
+    private static final Map<String, String> INDEXES = Map.of(
+            "username", "username, member_id",
+            "age", "age, member_id",
+            "team_name", "team_name, member_id"
+    );
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final List<JdbcTemplate> stores = new ArrayList<>();
+    private final ExecutorService executor;
+    // 검색은 read lock, staging 테이블 교체는 write lock. 교체하는 동안 모든 파티션 검색이 잠깐 기다린다.
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock(true);
+
+    public MemberPartitions(@Value("${member.partition.count:4}") int count,
+                            @Value("${member.partition.url:jdbc:h2:file:./data/partitions/member-%d}") String urlPattern,
+                            @Value("${member.partition.pool-size:4}") int poolSize) {
+        for (int partition = 0; partition < count; partition++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(urlPattern.formatted(partition));
+            dataSource.setUsername("sa");
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setPoolName("member-partition-" + partition);
+            dataSources.add(dataSource);
+
+            JdbcTemplate store = new JdbcTemplate(dataSource);
+            createTable(store, TABLE);
+            createIndexes(store, TABLE);
+            stores.add(store);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(count, runnable -> {
+            Thread thread = new Thread(runnable, "member-partition-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("member partitions = {} ({})", count, urlPattern);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    public int size() {
+        return stores.size();
+    }
+
+    /**
+     * 팀이 없는 회원은 0 번 파티션에 둔다.
+     */
+    public int partitionOf(Long teamId) {
+        return teamId == null ? 0 : Math.floorMod(Long.hashCode(teamId), stores.size());
+    }
+
+    /**
+     * 호출한 스레드에 요청 마감 시각이 있으면 남은 시간을 query timeout 으로 쓰는 JdbcTemplate 을 만든다.
+     * (JdbcTemplate 의 timeout 은 모든 호출이 같이 쓰므로 공유하는 store 를 바꾸지 않는다.)
+     */
+    public JdbcTemplate store(int partition) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return stores.get(partition);
+        }
+        JdbcTemplate store = new JdbcTemplate(dataSources.get(partition));
+        store.setQueryTimeout(deadline.remainingSeconds());
+        return store;
+    }
+
+    /**
+     * 교체 중인 파티션을 보지 않도록 read lock 을 잡고 실행한다. 여러 쿼리로 이루어진 검색(목록 + count)은 같은 테이블을 본다.
+     */
+    public <T> T read(Supplier<T> search) {
+        swapLock.readLock().lock();
+        try {
+            return search.get();
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 모든 파티션의 staging 테이블을 비워서 새로 만든다. 인덱스는 채운 다음 swap 에서 만든다.
+     */
+    void createStaging() {
+        scatter(all(), (partition, store) -> {
+            store.execute("drop table if exists " + STAGING_TABLE);
+            createTable(store, STAGING_TABLE);
+            return true;
+        });
+    }
+
+    /**
+     * staging 테이블에 인덱스를 만들고 write lock 안에서 모든 파티션의 member 테이블과 한꺼번에 바꾼다.
+     */
+    void swap() {
+        scatter(all(), (partition, store) -> {
+            createIndexes(store, STAGING_TABLE);
+            return true;
+        });
+
+        swapLock.writeLock().lock();
+        try {
+            scatter(all(), (partition, store) -> {
+                store.execute("drop table " + TABLE);
+                store.execute("alter table " + STAGING_TABLE + " rename to " + TABLE);
+                INDEXES.keySet().forEach(column -> store.execute("alter index " + indexName(STAGING_TABLE, column) + " rename to " + indexName(TABLE, column)));
+                return true;
+            });
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    List<Integer> all() {
+        return IntStream.range(0, stores.size()).boxed().toList();
+    }
+
+    /**
+     * 파티션마다 병렬로 실행하고 partitions 순서대로 결과를 모은다. 파티션이 하나면 호출한 스레드에서 바로 실행한다.
+     * store 는 호출한 스레드에서 만들어서 넘기므로 요청 마감 시각이 파티션 스레드의 쿼리에도 적용된다.
+     */
+    public <T> List<T> scatter(List<Integer> partitions, BiFunction<Integer, JdbcTemplate, T> work) {
+        if (partitions.size() == 1) {
+            return List.of(work.apply(partitions.get(0), store(partitions.get(0))));
+        }
+
+        List<CompletableFuture<T>> futures = partitions.stream()
+                .map(partition -> {
+                    JdbcTemplate store = store(partition);
+                    return CompletableFuture.supplyAsync(RequestDeadline.propagate(() -> work.apply(partition, store)), executor);
+                })
+                .toList();
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private static void createTable(JdbcTemplate store, String table) {
+        store.execute(CREATE_TABLE.formatted(table));
+    }
+
+    private static void createIndexes(JdbcTemplate store, String table) {
+        INDEXES.forEach((column, columns) ->
+                store.execute("create index if not exists " + indexName(table, column) + " on " + table + " (" + columns + ")"));
+    }
+
+    private static String indexName(String table, String column) {
+        return "idx_" + table + "_" + column;
+    }
+}
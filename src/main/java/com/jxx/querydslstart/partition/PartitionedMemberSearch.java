@@ -0,0 +1,204 @@
+package com.jxx.querydslstart.partition;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.dto.MemberTeamDto;
+import com.jxx.querydslstart.repository.support.InClauses;
+import com.jxx.querydslstart.repository.support.MemberPredicates;
+import com.jxx.querydslstart.repository.support.MemberSorts;
+import com.jxx.querydslstart.repository.support.MemberSqlConditions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * MemberPartitions 에 대한 검색. 기존 검색(MemberRepository.search, searchPage*, searchCount)은 항상 메인 member 테이블을 읽고,
+ * 파티션은 이 클래스를 직접 부르는 쪽(/v3/members/partitioned)만 읽는다.
+ * - teamName(또는 teamNames) 조건이 있으면 메인 DB 의 team 테이블에서 id 를 찾아 해당 파티션만 조회한다.
+ * - 아니면 모든 파티션에 같은 쿼리를 보내고(scatter) 결과를 합친다(gather).
+ *   페이지는 파티션마다 offset + size 건을 같은 순서로 읽어서 합친 뒤 잘라내고, count 는 파티션별 count 의 합이다.
+ *
+ * 파티션 데이터는 MemberPartitionLoader 가 메인 member 테이블에서 복사하고 MemberPartitionSync 가 커밋된 변경을 따라가는 복제본이다.
+ * 결과는 최종적 일관성(eventually consistent)만 보장한다. 커밋된 변경이 구독자 스레드에서 반영되기 전까지는 이전 값이 보이고,
+ * 같은 트랜잭션에서 아직 커밋하지 않은 변경은 보이지 않는다. 쓴 값을 바로 읽어야 하면 메인 검색을 쓴다.
+ * 검색 하나(목록 + count)는 MemberPartitions.read 안에서 실행되어 rebuild 의 테이블 교체와 섞이지 않는다.
+ */
+@Component
+@ConditionalOnProperty(name = "member.partition.enabled", havingValue = "true")
+public class PartitionedMemberSearch {
+
+    private static final String SELECT = "select m.member_id, m.username, m.age, m.team_id, m.team_name from member m where 1 = 1";
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "username", "m.username",
+            "age", "m.age",
+            "teamName", "m.team_name",
+            "id", "m.member_id"
+    );
+
+    private static final RowMapper<MemberTeamDto> ROW_MAPPER = (rs, rowNum) -> new MemberTeamDto(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getInt(3),
+            rs.getObject(4, Long.class),
+            rs.getString(5));
+
+    private final MemberPartitions partitions;
+    private final JdbcTemplate mainJdbcTemplate;
+
+    public PartitionedMemberSearch(MemberPartitions partitions, JdbcTemplate mainJdbcTemplate) {
+        this.partitions = partitions;
+        this.mainJdbcTemplate = mainJdbcTemplate;
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return partitions.read(() -> searchPartitions(condition));
+    }
+
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        MemberSorts.orderBy(pageable.getSort(), condition); // 메인 DB 와 같은 정렬 규칙으로 검증한다.
+        return partitions.read(() -> searchPartitions(condition, pageable));
+    }
+
+    public long count(MemberSearchCondition condition) {
+        return partitions.read(() -> {
+            List<Integer> targets = targets(condition);
+            return targets.isEmpty() ? 0 : count(condition, targets);
+        });
+    }
+
+    private List<MemberTeamDto> searchPartitions(MemberSearchCondition condition) {
+        List<Integer> targets = targets(condition);
+        if (targets.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = query(condition, SELECT);
+        return partitions.scatter(targets, (partition, store) -> store.query(query.sql(), ROW_MAPPER, query.args()))
+                .stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private Page<MemberTeamDto> searchPartitions(MemberSearchCondition condition, Pageable pageable) {
+        List<Integer> targets = targets(condition);
+        if (targets.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Query query = query(condition, SELECT);
+        String orderBy = orderBy(pageable.getSort());
+        List<MemberTeamDto> content;
+        if (targets.size() == 1) {
+            content = partitions.store(targets.get(0)).query(query.sql() + orderBy + " limit ? offset ?", ROW_MAPPER,
+                    query.args(pageable.getPageSize(), pageable.getOffset()));
+        } else {
+            // 각 파티션의 앞쪽 offset + size 건 안에 전체의 해당 페이지가 모두 들어 있다.
+            long window = pageable.getOffset() + pageable.getPageSize();
+            content = partitions.scatter(targets, (partition, store) -> store.query(query.sql() + orderBy + " limit ?", ROW_MAPPER, query.args(window)))
+                    .stream()
+                    .flatMap(List::stream)
+                    .sorted(comparator(pageable.getSort()))
+                    .skip(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .toList();
+        }
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(condition, targets));
+    }
+
+    private long count(MemberSearchCondition condition, List<Integer> targets) {
+        Query query = query(condition, "select count(*) from member m where 1 = 1");
+        return partitions.scatter(targets, (partition, store) -> store.queryForObject(query.sql(), Long.class, query.args()))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    /**
+     * 조회할 파티션 번호. team 이름 조건에 맞는 팀이 하나도 없으면 빈 목록이다.
+     */
+    List<Integer> targets(MemberSearchCondition condition) {
+        List<String> teamNames;
+        if (hasText(condition.getTeamName())) {
+            teamNames = List.of(condition.getTeamName());
+        } else if (condition.getTeamNames() != null) {
+            teamNames = MemberPredicates.texts(condition.getTeamNames()); // 빈 값만 있으면 맞는 팀이 없다.
+        } else {
+            return partitions.all();
+        }
+
+        TreeSet<Integer> targets = new TreeSet<>();
+        for (List<String> chunk : InClauses.paddedChunks(teamNames)) {
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            mainJdbcTemplate.queryForList("select id from team where name in (" + placeholders + ")", Long.class, chunk.toArray())
+                    .forEach(teamId -> targets.add(partitions.partitionOf(teamId)));
+        }
+        return List.copyOf(targets);
+    }
+
+    private Query query(MemberSearchCondition condition, String select) {
+        StringBuilder sql = new StringBuilder(select);
+        List<Object> params = new ArrayList<>();
+        MemberSqlConditions.append(sql, params, condition, "m.team_name");
+        return new Query(sql.toString(), params);
+    }
+
+    private static String orderBy(Sort sort) {
+        StringBuilder orderBy = new StringBuilder(" order by ");
+        for (Sort.Order order : sort) {
+            orderBy.append(SORT_COLUMNS.get(order.getProperty())).append(order.isAscending() ? " asc, " : " desc, ");
+        }
+        return orderBy.append("m.member_id").append(tiebreakerAscending(sort) ? " asc" : " desc").toString();
+    }
+
+    /**
+     * SQL 의 order by 와 같은 순서. H2 는 null 을 가장 작은 값으로 정렬한다.
+     */
+    private static Comparator<MemberTeamDto> comparator(Sort sort) {
+        Comparator<MemberTeamDto> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<MemberTeamDto> key = switch (order.getProperty()) {
+                case "username" -> Comparator.comparing(MemberTeamDto::getUsername, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "age" -> Comparator.comparingInt(MemberTeamDto::getAge);
+                case "teamName" -> Comparator.comparing(MemberTeamDto::getTeamName, Comparator.nullsFirst(Comparator.naturalOrder()));
+                default -> Comparator.comparing(MemberTeamDto::getMemberId);
+            };
+            comparator = comparator.thenComparing(order.isAscending() ? key : key.reversed());
+        }
+        Comparator<MemberTeamDto> tiebreaker = Comparator.comparing(MemberTeamDto::getMemberId);
+        return comparator.thenComparing(tiebreakerAscending(sort) ? tiebreaker : tiebreaker.reversed());
+    }
+
+    // MemberSorts 와 같이 id 정렬이 없으면 첫 번째 정렬 방향으로 id 를 붙인다.
+    private static boolean tiebreakerAscending(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (order.getProperty().equals("id")) {
+                return order.isAscending();
+            }
+        }
+        return sort.isEmpty() || sort.iterator().next().isAscending();
+    }
+
+    private record Query(String sql, List<Object> params) {
+
+        Object[] args(Object... extra) {
+            List<Object> all = new ArrayList<>(params);
+            Collections.addAll(all, extra);
+            return all.toArray();
+        }
+    }
+}
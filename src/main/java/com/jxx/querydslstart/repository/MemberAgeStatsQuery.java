@@ -0,0 +1,13 @@
+package com.jxx.querydslstart.repository;
+
+import com.jxx.querydslstart.dto.AgeStatsCondition;
+import com.jxx.querydslstart.dto.AgeStatsDto;
+import com.jxx.querydslstart.dto.MemberTeamDto;
+
+import java.util.List;
+
+public interface MemberAgeStatsQuery {
+    List<AgeStatsDto> teamAgeStats();
+    AgeStatsDto globalAgeStats();
+    List<MemberTeamDto> searchByAgeStats(AgeStatsCondition condition);
+}
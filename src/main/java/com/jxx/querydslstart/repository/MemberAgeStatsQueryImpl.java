@@ -0,0 +1,100 @@
+package com.jxx.querydslstart.repository;
+
+import com.jxx.querydslstart.deadline.RequestDeadline;
+import com.jxx.querydslstart.dto.AgeStatsCondition;
+import com.jxx.querydslstart.dto.AgeStatsDto;
+import com.jxx.querydslstart.dto.MemberTeamDto;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * 팀별 / 전체 나이 통계와 비교하는 조회.
+ * QuerydslBasicTest 의 subQuery / subQueryGoe / selectSubQuery 는 전체 회원의 avg / max 를 구하는 상관 없는 서브쿼리라서 한 번만 집계된다.
+ * 팀 통계와 비교하려면 member.age > (select avg(memberSub.age) from Member memberSub where memberSub.team = member.team) 처럼
+ * 상관 서브쿼리가 필요하고, 이때는 회원마다 팀 전체를 다시 집계한다. (회원 수 x 팀 인원)
+ * 여기서는 통계를 group by 로 한 번만 집계한 파생 테이블과 join 한다. JPQL(Querydsl)은 from 절 서브쿼리를 지원하지 않아서 SQL 로 조회한다.
+ * (MemberAgeStatsBenchmarkTest 는 팀 상관 서브쿼리(TEAM)와 전체 서브쿼리(GLOBAL) 각각을 이 조회와 비교한다)
+ */
+public class MemberAgeStatsQueryImpl implements MemberAgeStatsQuery {
+
+    private static final String TEAM_STATS = "select team_id, count(*) member_count, avg(cast(age as double)) avg_age, max(age) max_age" +
+            " from member where team_id is not null group by team_id";
+    private static final String GLOBAL_STATS = "select count(*) member_count, avg(cast(age as double)) avg_age, max(age) max_age from member";
+
+    private static final RowMapper<MemberTeamDto> MEMBER_TEAM = (rs, rowNum) -> new MemberTeamDto(
+            rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getObject(4, Long.class), rs.getString(5));
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+
+    public MemberAgeStatsQueryImpl(EntityManager em, JdbcTemplate jdbcTemplate) {
+        this.em = em;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<AgeStatsDto> teamAgeStats() {
+        flush();
+        return jdbcTemplate.query(statement("select s.team_id, t.name, s.member_count, s.avg_age, s.max_age" +
+                        " from (" + TEAM_STATS + ") s join team t on t.id = s.team_id order by s.team_id"),
+                (rs, rowNum) -> new AgeStatsDto(rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getDouble(4), rs.getInt(5)));
+    }
+
+    @Override
+    public AgeStatsDto globalAgeStats() {
+        flush();
+        return jdbcTemplate.query(statement(GLOBAL_STATS), rs -> {
+            rs.next();
+            long count = rs.getLong(1);
+            return count == 0
+                    ? new AgeStatsDto(null, null, 0, null, null)
+                    : new AgeStatsDto(null, null, count, rs.getDouble(2), rs.getInt(3));
+        });
+    }
+
+    @Override
+    public List<MemberTeamDto> searchByAgeStats(AgeStatsCondition condition) {
+        flush();
+        return jdbcTemplate.query(statement(sql(condition)), MEMBER_TEAM);
+    }
+
+    static String sql(AgeStatsCondition condition) {
+        StringBuilder sql = new StringBuilder()
+                .append("select m.member_id, m.username, m.age, t.id, t.name")
+                .append(" from member m");
+        if (condition.getScope() == AgeStatsCondition.Scope.TEAM) {
+            sql.append(" join (").append(TEAM_STATS).append(") s on s.team_id = m.team_id");
+        } else {
+            sql.append(" cross join (").append(GLOBAL_STATS).append(") s");
+        }
+        return sql.append(" left join team t on t.id = m.team_id")
+                .append(" where m.age ").append(condition.getComparison().getOperator()).append(" s.").append(condition.getMeasure().getColumn())
+                .append(" order by m.member_id")
+                .toString();
+    }
+
+    private void flush() {
+        if (em.isJoinedToTransaction()) {
+            em.flush(); // 아직 반영되지 않은 변경도 집계되도록 (JPQL 의 auto flush 와 같은 효과)
+        }
+    }
+
+    /**
+     * 요청 마감 시각이 있으면 남은 시간을 query timeout 으로 건다. (DeadlineQueryFactory 와 같은 기준)
+     */
+    private static PreparedStatementCreator statement(String sql) {
+        return connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            RequestDeadline deadline = RequestDeadline.current();
+            if (deadline != null) {
+                ps.setQueryTimeout(deadline.remainingSeconds());
+            }
+            return ps;
+        };
+    }
+}
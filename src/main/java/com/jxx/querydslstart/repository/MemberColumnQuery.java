@@ -0,0 +1,8 @@
+package com.jxx.querydslstart.repository;
+
+import com.jxx.querydslstart.dto.MemberColumns;
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+
+public interface MemberColumnQuery {
+    MemberColumns searchColumns(MemberSearchCondition condition);
+}
@@ -0,0 +1,81 @@
+package com.jxx.querydslstart.repository;
+
+import com.jxx.querydslstart.dto.MemberColumns;
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.repository.support.MemberSqlConditions;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * search 와 같은 조건으로 member id, age, team id, team name, username 을 열 단위로 조회한다.
+ * 엔티티나 DTO 를 거치지 않고 ResultSet 의 primitive 값을 바로 배열에 담으므로 행마다 객체가 생기지 않는다.
+ * team name 문자열은 team 별로 처음 한 번만 읽고, username 은 같은 이름끼리 사전 번호 하나를 같이 쓴다.
+ */
+public class MemberColumnQueryImpl implements MemberColumnQuery {
+
+    private static final int FETCH_SIZE = 1_000;
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+
+    public MemberColumnQueryImpl(EntityManager em, JdbcTemplate jdbcTemplate) {
+        this.em = em;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public MemberColumns searchColumns(MemberSearchCondition condition) {
+        if (em.isJoinedToTransaction()) {
+            em.flush(); // 아직 반영되지 않은 변경도 조회되도록 (JPQL 의 auto flush 와 같은 효과)
+        }
+
+        List<Object> params = new ArrayList<>();
+        String sql = sql(condition, params);
+
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, this::read);
+    }
+
+    private MemberColumns read(ResultSet rs) throws SQLException {
+        MemberColumns.Builder columns = MemberColumns.builder();
+        while (rs.next()) {
+            long memberId = rs.getLong(1);
+            int age = rs.getInt(2);
+            int usernameCode = columns.usernameCode(rs.getString(5));
+            long teamId = rs.getLong(3);
+            if (rs.wasNull()) {
+                columns.add(memberId, age, MemberColumns.NO_TEAM, MemberColumns.NO_TEAM_NAME, usernameCode);
+                continue;
+            }
+
+            int teamNameCode = columns.teamNameCode(teamId);
+            if (teamNameCode == MemberColumns.NO_TEAM_NAME) {
+                teamNameCode = columns.addTeamName(teamId, rs.getString(4));
+            }
+            columns.add(memberId, age, teamId, teamNameCode, usernameCode);
+        }
+        return columns.build();
+    }
+
+    static String sql(MemberSearchCondition condition, List<Object> params) {
+        StringBuilder sql = new StringBuilder()
+                .append("select m.member_id, m.age, m.team_id, t.name, m.username")
+                .append(" from member m")
+                .append(" left join team t on t.id = m.team_id")
+                .append(" where 1 = 1");
+        MemberSqlConditions.append(sql, params, condition, "t.name");
+        return sql.append(" order by m.member_id").toString();
+    }
+}
@@ -6,10 +6,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberDynamicQuery {
     List<MemberTeamDto> search(MemberSearchCondition condition);
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+    Page<MemberTeamDto> searchPageComplexV2(MemberSearchCondition condition, Pageable pageable);
+    Stream<MemberTeamDto> searchStream(MemberSearchCondition condition);
+    List<MemberTeamDto> searchAfterId(MemberSearchCondition condition, long afterMemberId, int limit);
+    long searchCount(MemberSearchCondition condition);
 
 }
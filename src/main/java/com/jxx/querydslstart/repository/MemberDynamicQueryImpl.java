@@ -3,30 +3,37 @@ package com.jxx.querydslstart.repository;
 import com.jxx.querydslstart.dto.MemberSearchCondition;
 import com.jxx.querydslstart.dto.MemberTeamDto;
 import com.jxx.querydslstart.dto.QMemberTeamDto;
-import com.jxx.querydslstart.entity.Member;
-import com.querydsl.core.QueryResults;
+import com.jxx.querydslstart.repository.support.DeadlineQueryFactory;
+import com.jxx.querydslstart.repository.support.MemberSorts;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
 
 import java.util.List;
-import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 
 import static com.jxx.querydslstart.entity.QMember.member;
 import static com.jxx.querydslstart.entity.QTeam.team;
+import static com.jxx.querydslstart.repository.support.MemberPredicates.memberIdIn;
+import static com.jxx.querydslstart.repository.support.MemberPredicates.teamNameIn;
+import static com.jxx.querydslstart.repository.support.MemberPredicates.usernameIn;
 import static org.springframework.util.StringUtils.hasText;
 
 public class MemberDynamicQueryImpl implements MemberDynamicQuery{
 
+    private static final int STREAM_FETCH_SIZE = 1_000;
+
     private final JPAQueryFactory queryFactory;
 
     public MemberDynamicQueryImpl(EntityManager em) {
-        this.queryFactory = new JPAQueryFactory(em);
+        this.queryFactory = new DeadlineQueryFactory(em);
     }
 
     @Override
@@ -41,14 +48,22 @@ public class MemberDynamicQueryImpl implements MemberDynamicQuery{
                 ))
                 .from(member)
                 .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
+                .where(searchConditions(condition))
                 .fetch();
     }
 
+    private Predicate[] searchConditions(MemberSearchCondition condition) {
+        return new Predicate[]{
+                usernameEq(condition.getUsername()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()),
+                usernameIn(condition.getUsernames()),
+                teamNameIn(condition.getTeamNames()),
+                memberIdIn(condition.getMemberIds())
+        };
+    }
+
     private BooleanExpression ageLoe(Integer ageLoe) {
         return ageLoe != null ? member.age.loe(ageLoe) : null;
     }
@@ -65,9 +80,10 @@ public class MemberDynamicQueryImpl implements MemberDynamicQuery{
         return hasText(username) ? member.username.eq(username) : null;
     }
 
+
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
-        QueryResults<MemberTeamDto> results = queryFactory
+        List<MemberTeamDto> content = queryFactory
                 .select(new QMemberTeamDto(
                         member.id,
                         member.username,
@@ -77,20 +93,13 @@ public class MemberDynamicQueryImpl implements MemberDynamicQuery{
                 ))
                 .from(member)
                 .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
+                .where(searchConditions(condition))
+                .orderBy(MemberSorts.orderBy(pageable.getSort(), condition))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
-                .fetchResults();
-
-        List<MemberTeamDto> content = results.getResults();
-        long total = results.getTotal();
-
-        return new PageImpl<>(content, pageable, total);
+                .fetch();
 
+        return new PageImpl<>(content, pageable, count(condition));
     }
 
     @Override
@@ -105,29 +114,18 @@ public class MemberDynamicQueryImpl implements MemberDynamicQuery{
                 ))
                 .from(member)
                 .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
+                .where(searchConditions(condition))
+                .orderBy(MemberSorts.orderBy(pageable.getSort(), condition))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .fetch();
 
-        long total = queryFactory // 둘을 나누는 이유는 한 번에 content - count 를 불러오면 한쪽은 최적화하기 힘들다. 분리를 통해 둘 다 최적화한다.
-                .select(member)
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .fetchCount();
+        long total = count(condition); // 둘을 나누는 이유는 한 번에 content - count 를 불러오면 한쪽은 최적화하기 힘들다. 분리를 통해 둘 다 최적화한다.
 
         return new PageImpl<>(content, pageable, total);
     }
 
+    @Override
     public Page<MemberTeamDto> searchPageComplexV2(MemberSearchCondition condition, Pageable pageable) {
         List<MemberTeamDto> content = queryFactory // content 만 가져옴
                 .select(new QMemberTeamDto(
@@ -139,27 +137,94 @@ public class MemberDynamicQueryImpl implements MemberDynamicQuery{
                 ))
                 .from(member)
                 .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
+                .where(searchConditions(condition))
+                .orderBy(MemberSorts.orderBy(pageable.getSort(), condition))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .fetch();
 
-        JPAQuery<Member> countQuery = queryFactory // 둘을 나누는 이유는 한 번에 content - count 를 불러오면 한쪽은 최적화하기 힘들다. 분리를 통해 둘 다 최적화한다.
-                .select(member)
+        JPAQuery<Long> countQuery = countQuery(condition); // 둘을 나누는 이유는 한 번에 content - count 를 불러오면 한쪽은 최적화하기 힘들다. 분리를 통해 둘 다 최적화한다.
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> fetchCount(countQuery));
+        // content - pageable 두 개를 가지고 Count를 구할 수 있으면 count 쿼리를 호출하지 않도록 구현되어 있음
+    }
+
+    /**
+     * 전체 결과를 페이지로 나누지 않고 커서로 한 건씩 읽는다. 트랜잭션 안에서 사용하고 반드시 close 해야 한다.
+     * DTO 로 조회하기 때문에 영속성 컨텍스트에 엔티티가 쌓이지 않는다.
+     */
+    @Override
+    public Stream<MemberTeamDto> searchStream(MemberSearchCondition condition) {
+        return queryFactory
+                .select(new QMemberTeamDto(
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id,
+                        team.name
+                ))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(searchConditions(condition))
+                .orderBy(member.id.asc())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .stream();
+    }
+
+    /**
+     * member id 기준으로 afterMemberId 다음부터 limit 건을 조회한다. (keyset paging)
+     * offset 을 쓰지 않기 때문에 뒤쪽 구간도 앞쪽과 같은 비용으로 읽는다.
+     */
+    @Override
+    public List<MemberTeamDto> searchAfterId(MemberSearchCondition condition, long afterMemberId, int limit) {
+        return queryFactory
+                .select(new QMemberTeamDto(
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id,
+                        team.name
+                ))
                 .from(member)
                 .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                );
+                .where(searchConditions(condition))
+                .where(member.id.gt(afterMemberId))
+                .orderBy(member.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    @Override
+    public long searchCount(MemberSearchCondition condition) {
+        return count(condition);
+    }
+
+    private long count(MemberSearchCondition condition) {
+        return fetchCount(countQuery(condition));
+    }
+
+    /**
+     * content 쿼리를 감싸지 않고 count(member.id) 를 직접 조회한다.
+     * team 조건이 있을 때만 team 을 조인한다. (ManyToOne 이라 조인이 없어도 건수는 같다)
+     */
+    JPAQuery<Long> countQuery(MemberSearchCondition condition) {
+        JPAQuery<Long> query = queryFactory
+                .select(member.id.count())
+                .from(member);
+
+        if (needsTeamJoin(condition)) {
+            query.join(member.team, team); // team.name 조건이 걸리면 left join 도 결국 inner join 과 같다.
+        }
 
+        return query.where(searchConditions(condition));
+    }
+
+    private long fetchCount(JPAQuery<Long> countQuery) {
+        Long total = countQuery.fetchOne();
+        return total != null ? total : 0L;
+    }
 
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchCount);
-        // content - pageable 두 개를 가지고 Count를 구할 수 있으면 fetchCount 를 호출하지 않도록 구현되어 있음
+    private boolean needsTeamJoin(MemberSearchCondition condition) {
+        return teamNameEq(condition.getTeamName()) != null || teamNameIn(condition.getTeamNames()) != null;
     }
 }
@@ -1,34 +1,65 @@
 package com.jxx.querydslstart.repository;
 
+import com.jxx.querydslstart.cache.UsernameLookupCache;
+import com.jxx.querydslstart.deadline.RequestDeadline;
 import com.jxx.querydslstart.dto.MemberSearchCondition;
 import com.jxx.querydslstart.dto.MemberTeamDto;
 import com.jxx.querydslstart.dto.QMemberDto;
 import com.jxx.querydslstart.dto.QMemberTeamDto;
 import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.entity.Team;
+import com.jxx.querydslstart.repository.support.DeadlineQueryFactory;
+import com.jxx.querydslstart.repository.support.InClauses;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.stereotype.Repository;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static com.jxx.querydslstart.entity.QMember.member;
 import static com.jxx.querydslstart.entity.QTeam.*;
+import static com.jxx.querydslstart.repository.support.MemberPredicates.memberIdIn;
+import static com.jxx.querydslstart.repository.support.MemberPredicates.teamNameIn;
+import static com.jxx.querydslstart.repository.support.MemberPredicates.usernameIn;
 import static org.springframework.util.StringUtils.hasText;
 
 @Repository
 public class MemberJpaRepository {
 
     private final EntityManager em;
+    private final EntityManagerFactory emf;
     private final JPAQueryFactory queryFactory;
+    private final Executor queryExecutor;
+    private final UsernameLookupCache usernameLookupCache;
 
-    public MemberJpaRepository(EntityManager em) {
+    public MemberJpaRepository(EntityManager em,
+                               EntityManagerFactory emf,
+                               UsernameLookupCache usernameLookupCache,
+                               Executor queryExecutor) {
         this.em = em;
-        this.queryFactory = new JPAQueryFactory(em);
+        this.emf = emf;
+        this.queryFactory = new DeadlineQueryFactory(em);
+        this.usernameLookupCache = usernameLookupCache;
+        this.queryExecutor = queryExecutor;
     }
 
     public void save(Member member) {
@@ -39,6 +70,113 @@ public class MemberJpaRepository {
         Member findMember = em.find(Member.class, id);
         return Optional.ofNullable(findMember);
     }
+
+    /**
+     * id 목록으로 회원을 한 번에 조회한다. 결과는 입력 순서를 따르고, 없는 id 는 빠진다.
+     * 1. 현재 트랜잭션의 영속성 컨텍스트에 이미 있는 회원은 DB 를 조회하지 않는다.
+     * 2. 나머지는 InClauses 로 나눈 IN 쿼리로 조회하고, 청크가 여러 개면 병렬로 실행한다.
+     *    단 트랜잭션 중에는 아직 커밋되지 않은 데이터를 봐야 하므로 현재 EntityManager 로 순서대로 실행한다.
+     */
+    public List<MemberTeamDto> findAllByIds(Collection<Long> ids) {
+        Map<Long, MemberTeamDto> found = new HashMap<>();
+        List<Long> remaining = new ArrayList<>();
+        SessionImplementor session = currentSession();
+        EntityPersister persister = session != null
+                ? session.getFactory().getRuntimeMetamodels().getMappingMetamodel().getEntityDescriptor(Member.class)
+                : null;
+        for (Long id : new LinkedHashSet<>(ids)) {
+            if (id == null) {
+                continue;
+            }
+            MemberTeamDto loaded = session != null ? findLoaded(session, persister, id) : null;
+            if (loaded != null) {
+                found.put(id, loaded);
+            } else {
+                remaining.add(id);
+            }
+        }
+
+        for (MemberTeamDto dto : findByIdChunks(remaining)) {
+            found.put(dto.getMemberId(), dto);
+        }
+
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * 트랜잭션에 묶인 EntityManager 가 없으면 (트랜잭션 밖) 영속성 컨텍스트도 비어 있으므로 null
+     */
+    private SessionImplementor currentSession() {
+        EntityManager current = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        return current != null ? current.unwrap(SessionImplementor.class) : null;
+    }
+
+    private MemberTeamDto findLoaded(SessionImplementor session, EntityPersister persister, Long id) {
+        Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+        return managed instanceof Member managedMember ? toDtoIfLoaded(managedMember) : null;
+    }
+
+    /**
+     * team 이름을 읽으려고 프록시를 초기화하면 오히려 쿼리가 늘어나므로, team 까지 로딩된 경우만 사용한다.
+     */
+    private MemberTeamDto toDtoIfLoaded(Member loaded) {
+        Team loadedTeam = loaded.getTeam();
+        if (loadedTeam == null) {
+            return new MemberTeamDto(loaded.getId(), loaded.getUsername(), loaded.getAge(), null, null);
+        }
+        if (!Hibernate.isInitialized(loadedTeam)) {
+            return null;
+        }
+        return new MemberTeamDto(loaded.getId(), loaded.getUsername(), loaded.getAge(), loadedTeam.getId(), loadedTeam.getName());
+    }
+
+    private List<MemberTeamDto> findByIdChunks(List<Long> ids) {
+        List<List<Long>> chunks = InClauses.paddedChunks(ids);
+        if (chunks.size() <= 1 || TransactionSynchronizationManager.isActualTransactionActive()) {
+            List<MemberTeamDto> result = new ArrayList<>();
+            for (List<Long> chunk : chunks) {
+                result.addAll(findByIdChunk(queryFactory, chunk));
+            }
+            return result;
+        }
+
+        List<CompletableFuture<List<MemberTeamDto>>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(RequestDeadline.propagate(() -> {
+                    EntityManager chunkEm = emf.createEntityManager();
+                    try {
+                        return findByIdChunk(new DeadlineQueryFactory(chunkEm), chunk);
+                    } finally {
+                        chunkEm.close();
+                    }
+                }), queryExecutor))
+                .toList();
+
+        try {
+            return futures.stream()
+                    .flatMap(future -> future.join().stream())
+                    .toList();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private List<MemberTeamDto> findByIdChunk(JPAQueryFactory factory, List<Long> chunk) {
+        return factory
+                .select(new QMemberTeamDto(
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id,
+                        team.name
+                ))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.in(chunk))
+                .fetch();
+    }
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class).getResultList();
     }
@@ -51,16 +189,17 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findByUsername(String username) {
-        return em.createQuery("select m from Member m where m.username=:username", Member.class)
-                .setParameter("username", username)
-                .getResultList();
+        return usernameLookupCache.findByUsername(username, em, name ->
+                em.createQuery("select m from Member m where m.username=:username", Member.class)
+                        .setParameter("username", name)
+                        .getResultList());
     }
 
     public List<Member> findByUsernameQ(String username) {
-        return queryFactory
+        return usernameLookupCache.findByUsername(username, em, name -> queryFactory
                 .selectFrom(member)
-                .where(member.username.eq(username))
-                .fetch();
+                .where(name != null ? member.username.eq(name) : member.username.isNull())
+                .fetch());
     }
 
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
@@ -81,6 +220,10 @@ public class MemberJpaRepository {
             builder.and(member.age.loe(condition.getAgeLoe()));
         }
 
+        builder.and(usernameIn(condition.getUsernames()));
+        builder.and(teamNameIn(condition.getTeamNames()));
+        builder.and(memberIdIn(condition.getMemberIds()));
+
         return queryFactory
                 .select(new QMemberTeamDto(
                         member.id,
@@ -109,7 +252,10 @@ public class MemberJpaRepository {
                 .where(usernameEq(condition.getUsername()),
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
+                        ageLoe(condition.getAgeLoe()),
+                        usernameIn(condition.getUsernames()),
+                        teamNameIn(condition.getTeamNames()),
+                        memberIdIn(condition.getMemberIds())
                 )
                 .fetch();
     }
@@ -0,0 +1,9 @@
+package com.jxx.querydslstart.repository;
+
+import com.jxx.querydslstart.entity.Member;
+
+import java.util.List;
+
+public interface MemberUsernameQuery {
+    List<Member> findByUsername(String username);
+}
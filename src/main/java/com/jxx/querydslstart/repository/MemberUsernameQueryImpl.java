@@ -0,0 +1,35 @@
+package com.jxx.querydslstart.repository;
+
+import com.jxx.querydslstart.cache.UsernameLookupCache;
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.repository.support.DeadlineQueryFactory;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+
+import static com.jxx.querydslstart.entity.QMember.member;
+
+/**
+ * 메서드 이름으로 만들어지던 findByUsername 을 UsernameLookupCache 를 거치도록 직접 구현한다.
+ */
+public class MemberUsernameQueryImpl implements MemberUsernameQuery {
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final UsernameLookupCache usernameLookupCache;
+
+    public MemberUsernameQueryImpl(EntityManager em, UsernameLookupCache usernameLookupCache) {
+        this.em = em;
+        this.queryFactory = new DeadlineQueryFactory(em);
+        this.usernameLookupCache = usernameLookupCache;
+    }
+
+    @Override
+    public List<Member> findByUsername(String username) {
+        return usernameLookupCache.findByUsername(username, em, name -> queryFactory
+                .selectFrom(member)
+                .where(name != null ? member.username.eq(name) : member.username.isNull()) // 메서드 이름 쿼리와 같이 null 은 is null
+                .fetch());
+    }
+}
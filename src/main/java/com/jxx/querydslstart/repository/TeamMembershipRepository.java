@@ -0,0 +1,147 @@
+package com.jxx.querydslstart.repository;
+
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.entity.Team;
+import com.jxx.querydslstart.event.ChangeEventBus;
+import com.jxx.querydslstart.event.ChangePublishingQueryFactory;
+import com.jxx.querydslstart.repository.support.InClauses;
+import com.querydsl.core.types.Predicate;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.jxx.querydslstart.entity.QMember.member;
+import static com.jxx.querydslstart.entity.QTeam.team;
+
+/**
+ * 회원의 소속 팀을 벌크 update 로 옮긴다.
+ * Member.changeTeam 과 달리 Team.members 를 초기화하지 않으므로 비용은 팀 크기가 아니라 옮기는 회원 수에 비례한다.
+ * 벌크 update 는 영속성 컨텍스트를 거치지 않기 때문에, 이미 로딩된 회원과 초기화된 Team.members 는 직접 맞춰 준다.
+ */
+@Repository
+@Transactional
+public class TeamMembershipRepository {
+
+    private final EntityManager em;
+    private final ChangePublishingQueryFactory queryFactory;
+
+    public TeamMembershipRepository(EntityManager em, ChangeEventBus changeEventBus) {
+        this.em = em;
+        this.queryFactory = new ChangePublishingQueryFactory(em, changeEventBus);
+    }
+
+    /**
+     * memberIds 회원을 targetTeamId 팀으로 옮긴다. targetTeamId 가 null 이면 팀에서 뺀다.
+     * @return 옮겨진 회원 수
+     */
+    public long moveMembers(Collection<Long> memberIds, Long targetTeamId) {
+        Team target = targetTeamId != null ? findTeam(targetTeamId) : null;
+        em.flush(); // 쌓여 있는 변경을 먼저 반영해야 벌크 update 와 뒤섞이지 않는다.
+
+        long moved = 0;
+        for (List<Long> chunk : InClauses.paddedChunks(memberIds)) {
+            moved += queryFactory
+                    .update(member)
+                    .changedIds(chunk)
+                    .set(member.team, target)
+                    .where(member.id.in(chunk))
+                    .execute();
+            syncLoaded(chunk, target);
+        }
+        return moved;
+    }
+
+    /**
+     * 조건에 맞는 회원을 옮긴다. 조건에는 member 와 team 을 사용할 수 있다. (예: team.name.eq("teamA"))
+     * 옮길 회원의 id 를 먼저 조회하므로 이 경우에도 팀 전체를 읽지 않는다.
+     */
+    public long moveMembers(Predicate condition, Long targetTeamId) {
+        List<Long> memberIds = queryFactory
+                .select(member.id)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(condition)
+                .fetch();
+        return moveMembers(memberIds, targetTeamId);
+    }
+
+    /**
+     * fromTeamId 팀의 회원을 모두 옮긴다. id 를 먼저 조회하지 않고 team_id 조건의 update 한 번으로 끝낸다.
+     * 어떤 회원이 옮겨졌는지 모르므로 변경 이벤트는 ids 없이(unknown rows) 나간다.
+     * 영속성 컨텍스트에서는 fromTeamId 팀 소속으로 로딩된 회원만 맞춰 준다.
+     */
+    public long moveAllMembers(Long fromTeamId, Long targetTeamId) {
+        Team target = targetTeamId != null ? findTeam(targetTeamId) : null;
+        em.flush();
+
+        long moved = queryFactory
+                .update(member)
+                .set(member.team, target)
+                .where(member.team.id.eq(fromTeamId))
+                .execute();
+        syncLoaded(loadedMemberIds(fromTeamId), target);
+        return moved;
+    }
+
+    private Team findTeam(Long teamId) {
+        Team target = em.find(Team.class, teamId);
+        if (target == null) {
+            throw new IllegalArgumentException("team not found: " + teamId);
+        }
+        return target;
+    }
+
+    private List<Long> loadedMemberIds(Long teamId) {
+        List<Long> memberIds = new ArrayList<>();
+        for (Map.Entry<Object, EntityEntry> entry : em.unwrap(SessionImplementor.class).getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+            if (entry.getKey() instanceof Member loaded && loaded.getTeam() != null && teamId.equals(loaded.getTeam().getId())) {
+                memberIds.add(loaded.getId());
+            }
+        }
+        return memberIds;
+    }
+
+    /**
+     * 영속성 컨텍스트에 있는 회원만 찾아서 team 을 바꾼다. (옮기는 id 수만큼만 확인)
+     * loadedState 도 같이 바꿔서 flush 때 같은 update 가 다시 나가지 않게 한다.
+     * 초기화되지 않은 Team.members 는 나중에 DB 에서 읽을 때 바뀐 결과가 보이므로 건드리지 않는다.
+     */
+    private void syncLoaded(List<Long> memberIds, Team target) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        PersistenceContext persistenceContext = session.getPersistenceContextInternal();
+        EntityPersister persister = session.getFactory().getRuntimeMetamodels()
+                .getMappingMetamodel().getEntityDescriptor(Member.class);
+        int teamProperty = persister.getEntityMetamodel().getPropertyIndex("team");
+
+        for (Long memberId : memberIds) {
+            if (!(persistenceContext.getEntity(session.generateEntityKey(memberId, persister)) instanceof Member loaded)
+                    || loaded.getTeam() == target) {
+                continue; // 로딩되지 않았거나 패딩으로 반복된 id
+            }
+
+            Team previous = loaded.getTeam();
+            if (previous != null && Hibernate.isInitialized(previous) && Hibernate.isInitialized(previous.getMembers())) {
+                previous.getMembers().remove(loaded);
+            }
+            if (target != null && Hibernate.isInitialized(target.getMembers())) {
+                target.getMembers().add(loaded);
+            }
+
+            loaded.setTeam(target);
+            EntityEntry entry = persistenceContext.getEntry(loaded);
+            if (entry != null && entry.getLoadedState() != null) {
+                entry.getLoadedState()[teamProperty] = target;
+            }
+        }
+    }
+}
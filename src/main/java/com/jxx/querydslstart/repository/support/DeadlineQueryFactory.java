@@ -0,0 +1,100 @@
+package com.jxx.querydslstart.repository.support;
+
+import com.jxx.querydslstart.deadline.RequestDeadline;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.jpa.impl.JPADeleteClause;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+/**
+ * 요청 마감 시각(RequestDeadline)을 따르는 JPAQueryFactory.
+ * 쿼리를 실행할 때마다(update / delete 포함) 남은 시간을 timeout 힌트로 넘기고, 남은 시간이 없으면 DB 에 보내지 않는다.
+ * 마감 시각이 없는 스레드(배치, 테스트 등)에서는 JPAQueryFactory 와 같다.
+ * 변경 이벤트는 보내지 않는다. 벌크 변경을 알려야 하면 event.ChangePublishingQueryFactory 를 쓴다.
+ */
+public class DeadlineQueryFactory extends JPAQueryFactory {
+
+    protected final EntityManager em;
+
+    public DeadlineQueryFactory(EntityManager em) {
+        super(em);
+        this.em = em;
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        return new DeadlineQuery<Void>(em);
+    }
+
+    @Override
+    public DeadlineUpdateClause update(EntityPath<?> path) {
+        return new DeadlineUpdateClause(em, path);
+    }
+
+    @Override
+    public DeadlineDeleteClause delete(EntityPath<?> path) {
+        return new DeadlineDeleteClause(em, path);
+    }
+
+    static class DeadlineQuery<T> extends JPAQuery<T> {
+
+        DeadlineQuery(EntityManager em) {
+            super(em);
+        }
+
+        @Override
+        protected Query createQuery(QueryModifiers modifiers, boolean forCount) {
+            return applyDeadline(super.createQuery(modifiers, forCount), entityManager);
+        }
+    }
+
+    private static Query applyDeadline(Query query, EntityManager em) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            query.setHint(HibernateHints.HINT_TIMEOUT, deadline.remainingSeconds());
+            deadline.register(em.unwrap(Session.class));
+        }
+        return query;
+    }
+
+    /**
+     * JPAUpdateClause / JPADeleteClause 는 execute 안에서 바로 Query 를 만들고 실행해서 끼어들 곳이 없으므로,
+     * createQuery 결과에 마감 시각을 적용하는 EntityManager 를 넘긴다.
+     */
+    private static EntityManager deadlineAware(EntityManager em) {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(), new Class<?>[]{EntityManager.class},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(em, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    return method.getName().equals("createQuery") && result instanceof Query query ? applyDeadline(query, em) : result;
+                });
+    }
+
+    public static class DeadlineUpdateClause extends JPAUpdateClause {
+
+        protected DeadlineUpdateClause(EntityManager em, EntityPath<?> path) {
+            super(deadlineAware(em), path, JPAProvider.getTemplates(em));
+        }
+    }
+
+    public static class DeadlineDeleteClause extends JPADeleteClause {
+
+        protected DeadlineDeleteClause(EntityManager em, EntityPath<?> path) {
+            super(deadlineAware(em), path, JPAProvider.getTemplates(em));
+        }
+    }
+}
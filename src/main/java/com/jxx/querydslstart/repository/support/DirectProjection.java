@@ -0,0 +1,102 @@
+package com.jxx.querydslstart.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Visitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 리플렉션 없이 DTO 를 만드는 Querydsl projection.
+ * Projections.bean / fields / constructor 는 행마다 리플렉션으로 setter, 필드, 생성자를 호출하지만
+ * DirectProjection 은 미리 넘겨준 생성자 참조와 setter 참조를 직접 호출한다.
+ * 이름이 아니라 setter 에 바로 연결하기 때문에 as("name") 같은 별칭도 필요 없다.
+ *
+ * <pre>
+ * // Projections.fields(UserDto.class, member.username.as("name"), member.age) 와 같다.
+ * DirectProjection.bean(UserDto.class, UserDto::new)
+ *         .bind(member.username, UserDto::setName)
+ *         .bind(member.age, UserDto::setAge)
+ *         .build();
+ *
+ * // Projections.constructor(MemberDto.class, member.username, member.age) 와 같다.
+ * DirectProjection.constructor(MemberDto.class,
+ *         args -> new MemberDto((String) args[0], (Integer) args[1]),
+ *         member.username, member.age);
+ * </pre>
+ */
+public class DirectProjection<T> extends FactoryExpressionBase<T> {
+
+    private final List<Expression<?>> args;
+    private final Function<Object[], T> factory;
+
+    private DirectProjection(Class<? extends T> type, List<Expression<?>> args, Function<Object[], T> factory) {
+        super(type);
+        this.args = Collections.unmodifiableList(args);
+        this.factory = factory;
+    }
+
+    public static <T> DirectProjection<T> constructor(Class<? extends T> type, Function<Object[], T> factory, Expression<?>... args) {
+        return new DirectProjection<>(type, List.of(args), factory);
+    }
+
+    public static <T> BeanBuilder<T> bean(Class<? extends T> type, Supplier<T> factory) {
+        return new BeanBuilder<>(type, factory);
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @Override
+    public T newInstance(Object... values) {
+        return factory.apply(values);
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+
+    public static class BeanBuilder<T> {
+
+        private final Class<? extends T> type;
+        private final Supplier<T> factory;
+        private final List<Expression<?>> args = new ArrayList<>();
+        private final List<BiConsumer<T, Object>> setters = new ArrayList<>();
+
+        private BeanBuilder(Class<? extends T> type, Supplier<T> factory) {
+            this.type = type;
+            this.factory = factory;
+        }
+
+        /**
+         * null 이 조회되면 setter 를 호출하지 않는다. (Projections.bean 과 같은 동작, primitive 필드는 기본값 유지)
+         */
+        @SuppressWarnings("unchecked")
+        public <V> BeanBuilder<T> bind(Expression<V> expression, BiConsumer<T, ? super V> setter) {
+            args.add(expression);
+            setters.add((BiConsumer<T, Object>) setter);
+            return this;
+        }
+
+        public DirectProjection<T> build() {
+            List<BiConsumer<T, Object>> boundSetters = List.copyOf(setters);
+            return new DirectProjection<>(type, new ArrayList<>(args), values -> {
+                T instance = factory.get();
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != null) {
+                        boundSetters.get(i).accept(instance, values[i]);
+                    }
+                }
+                return instance;
+            });
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.jxx.querydslstart.repository.support;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.SimpleExpression;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * IN 절 파라미터 목록을 2의 거듭제곱 크기로 맞추고, 너무 큰 목록은 여러 개의 IN 으로 나눈다.
+ * 파라미터 개수마다 다른 SQL 이 만들어지면 Hibernate/H2 의 plan cache 가 금방 가득 차기 때문에
+ * 1, 2, 4, 8 ... MAX_CHUNK_SIZE 개의 모양만 생기도록 마지막 값을 반복해서 채운다.
+ */
+public final class InClauses {
+
+    public static final int MAX_CHUNK_SIZE = 512;
+
+    private InClauses() {
+    }
+
+    /**
+     * null 과 중복을 제거한 뒤 MAX_CHUNK_SIZE 단위로 나누고, 각 조각을 2의 거듭제곱 크기로 채운다.
+     * 입력 순서는 유지된다.
+     */
+    public static <T> List<List<T>> paddedChunks(Collection<? extends T> values) {
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<T>(values));
+        distinct.removeIf(Objects::isNull);
+
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += MAX_CHUNK_SIZE) {
+            int to = Math.min(from + MAX_CHUNK_SIZE, distinct.size());
+            chunks.add(pad(distinct.subList(from, to)));
+        }
+        return chunks;
+    }
+
+    /**
+     * path IN (...) 조건을 만든다. 값이 없으면 null 을 반환해서 where 절에서 무시되도록 한다.
+     * 조각이 여러 개면 path IN (...) OR path IN (...) 형태가 된다.
+     */
+    public static <T> BooleanExpression in(SimpleExpression<T> path, Collection<? extends T> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+
+        BooleanExpression result = null;
+        for (List<T> chunk : paddedChunks(values)) {
+            BooleanExpression in = path.in(chunk);
+            result = result == null ? in : result.or(in);
+        }
+        return result;
+    }
+
+    static int paddedSize(int size) {
+        if (size <= 1) {
+            return size;
+        }
+        return Integer.highestOneBit(size - 1) << 1;
+    }
+
+    private static <T> List<T> pad(List<T> chunk) {
+        List<T> padded = new ArrayList<>(paddedSize(chunk.size()));
+        padded.addAll(chunk);
+        T last = chunk.get(chunk.size() - 1);
+        while (padded.size() < paddedSize(chunk.size())) {
+            padded.add(last);
+        }
+        return padded;
+    }
+}
@@ -0,0 +1,11 @@
+package com.jxx.querydslstart.repository.support;
+
+/**
+ * 허용되지 않은 정렬 속성이나, 인덱스로 처리할 수 없어 전체 정렬이 필요한 정렬/검색 조건 조합일 때 발생한다.
+ */
+public class InvalidSortException extends RuntimeException {
+
+    public InvalidSortException(String message) {
+        super(message);
+    }
+}
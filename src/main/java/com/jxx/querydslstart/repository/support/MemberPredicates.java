@@ -0,0 +1,51 @@
+package com.jxx.querydslstart.repository.support;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.SimpleExpression;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.jxx.querydslstart.entity.QMember.member;
+import static com.jxx.querydslstart.entity.QTeam.team;
+
+/**
+ * MemberSearchCondition 의 여러 값 조건(usernames, teamNames, memberIds)을 Querydsl 조건으로 만든다.
+ * - 목록이 null 이면 조건이 없다. (null 을 반환해서 where 절에서 무시된다)
+ * - 목록은 있는데 쓸 수 있는 값(빈 문자열, null 제외)이 없으면 아무것도 맞지 않는다.
+ *   ?usernames= 처럼 빈 값만 넘어온 요청이 전체 조회가 되지 않도록 한다.
+ * JDBC 조회(MemberSqlConditions)도 같은 규칙을 따른다.
+ */
+public final class MemberPredicates {
+
+    private static final BooleanExpression NONE = Expressions.booleanTemplate("1 = 0");
+
+    private MemberPredicates() {
+    }
+
+    public static BooleanExpression usernameIn(List<String> usernames) {
+        return usernames != null ? in(member.username, texts(usernames)) : null;
+    }
+
+    public static BooleanExpression teamNameIn(List<String> teamNames) {
+        return teamNames != null ? in(team.name, texts(teamNames)) : null;
+    }
+
+    public static BooleanExpression memberIdIn(List<Long> memberIds) {
+        return memberIds != null ? in(member.id, ids(memberIds)) : null;
+    }
+
+    public static List<String> texts(List<String> values) {
+        return values.stream().filter(StringUtils::hasText).toList();
+    }
+
+    public static List<Long> ids(List<Long> values) {
+        return values.stream().filter(Objects::nonNull).toList();
+    }
+
+    private static <T> BooleanExpression in(SimpleExpression<T> path, List<T> values) {
+        return values.isEmpty() ? NONE : InClauses.in(path, values);
+    }
+}
@@ -0,0 +1,101 @@
+package com.jxx.querydslstart.repository.support;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.jxx.querydslstart.entity.QMember.member;
+import static com.jxx.querydslstart.entity.QTeam.team;
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * Pageable 의 Sort 를 Querydsl OrderSpecifier 로 바꾼다.
+ * - 화이트리스트에 있는 속성(username, age, teamName, id)만 허용
+ * - 항상 member.id 를 마지막에 붙여서 같은 값이 있어도 페이지가 흔들리지 않도록 한다.
+ * - 인덱스로 처리할 수 없는 정렬은 결과가 좁혀지는 조건(username, usernames, memberIds)이 있을 때만 허용
+ */
+public final class MemberSorts {
+
+    private static final Map<String, ComparableExpressionBase<?>> SORTABLE = Map.of(
+            "username", member.username,
+            "age", member.age,
+            "teamName", team.name,
+            "id", member.id
+    );
+
+    // (컬럼, member_id) 인덱스가 있는 속성 - Member 엔티티의 @Index 참고
+    private static final Set<String> INDEXED = Set.of("username", "age", "id");
+
+    private MemberSorts() {
+    }
+
+    public static OrderSpecifier<?>[] orderBy(Sort sort, MemberSearchCondition condition) {
+        if (!isIndexServed(sort) && !isNarrowed(condition)) {
+            throw new InvalidSortException("인덱스로 처리할 수 없는 정렬입니다. username, usernames, memberIds 조건과 함께 사용하세요: " + sort);
+        }
+
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            orders.add(toOrderSpecifier(order));
+            hasId |= order.getProperty().equals("id");
+        }
+
+        if (!hasId) { // tiebreaker - 첫 번째 정렬 방향을 따라야 인덱스를 한 방향으로 읽을 수 있다.
+            Order direction = orders.isEmpty() ? Order.ASC : orders.get(0).getOrder();
+            orders.add(new OrderSpecifier<>(direction, member.id));
+        }
+        return orders.toArray(OrderSpecifier[]::new);
+    }
+
+    /**
+     * 정렬 없음, 또는 인덱스가 있는 속성 하나로만 정렬(뒤에 id 가 붙는 것은 허용)하는 경우만 인덱스로 처리된다.
+     */
+    public static boolean isIndexServed(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.isEmpty()) {
+            return true;
+        }
+
+        Sort.Order first = orders.get(0);
+        if (!INDEXED.contains(property(first))) {
+            return false;
+        }
+
+        for (Sort.Order next : orders.subList(1, orders.size())) {
+            if (!next.getProperty().equals("id") || next.getDirection() != first.getDirection()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * where 절과 같은 기준으로 본다. 빈 문자열만 있는 usernames, null 만 있는 memberIds 는 결과를 좁히지 않는다.
+     */
+    private static boolean isNarrowed(MemberSearchCondition condition) {
+        return hasText(condition.getUsername())
+                || (condition.getUsernames() != null && !MemberPredicates.texts(condition.getUsernames()).isEmpty())
+                || (condition.getMemberIds() != null && !MemberPredicates.ids(condition.getMemberIds()).isEmpty());
+    }
+
+    private static String property(Sort.Order order) {
+        if (!SORTABLE.containsKey(order.getProperty())) {
+            throw new InvalidSortException("정렬할 수 없는 속성입니다: " + order.getProperty() + " (허용: " + SORTABLE.keySet() + ")");
+        }
+        return order.getProperty();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static OrderSpecifier<?> toOrderSpecifier(Sort.Order order) {
+        ComparableExpressionBase expression = SORTABLE.get(property(order));
+        return new OrderSpecifier(order.isAscending() ? Order.ASC : Order.DESC, expression);
+    }
+}
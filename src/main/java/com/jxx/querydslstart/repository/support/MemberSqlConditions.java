@@ -0,0 +1,71 @@
+package com.jxx.querydslstart.repository.support;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * MemberSearchCondition 을 JDBC 용 where 조건으로 만든다. (Querydsl 을 거치지 않는 조회에서 사용)
+ * member 테이블 별칭은 m 으로 고정하고, team 이름 컬럼은 호출하는 쪽에서 정한다. (조인한 t.name, 또는 비정규화한 m.team_name)
+ * IN 절은 InClauses 와 같은 규칙으로 나누고 채운다. 값 목록은 MemberPredicates 와 같은 규칙을 따른다.
+ * (목록이 있는데 쓸 수 있는 값이 없으면 아무것도 맞지 않는다)
+ */
+public final class MemberSqlConditions {
+
+    private MemberSqlConditions() {
+    }
+
+    /**
+     * "and ..." 조건을 sql 에 붙이고 파라미터를 params 에 순서대로 추가한다.
+     */
+    public static void append(StringBuilder sql, List<Object> params, MemberSearchCondition condition, String teamNameColumn) {
+        if (hasText(condition.getUsername())) {
+            sql.append(" and m.username = ?");
+            params.add(condition.getUsername());
+        }
+        if (hasText(condition.getTeamName())) {
+            sql.append(" and ").append(teamNameColumn).append(" = ?");
+            params.add(condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            sql.append(" and m.age >= ?");
+            params.add(condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            sql.append(" and m.age <= ?");
+            params.add(condition.getAgeLoe());
+        }
+        if (condition.getUsernames() != null) {
+            appendIn(sql, params, "m.username", MemberPredicates.texts(condition.getUsernames()));
+        }
+        if (condition.getTeamNames() != null) {
+            appendIn(sql, params, teamNameColumn, MemberPredicates.texts(condition.getTeamNames()));
+        }
+        if (condition.getMemberIds() != null) {
+            appendIn(sql, params, "m.member_id", MemberPredicates.ids(condition.getMemberIds()));
+        }
+    }
+
+    private static void appendIn(StringBuilder sql, List<Object> params, String column, Collection<?> values) {
+        List<? extends List<?>> chunks = InClauses.paddedChunks(values);
+        if (chunks.isEmpty()) {
+            sql.append(" and 1 = 0");
+            return;
+        }
+
+        sql.append(" and (");
+        for (int i = 0; i < chunks.size(); i++) {
+            List<?> chunk = chunks.get(i);
+            sql.append(i == 0 ? "" : " or ").append(column).append(" in (");
+            for (int j = 0; j < chunk.size(); j++) {
+                sql.append(j == 0 ? "?" : ", ?");
+                params.add(chunk.get(j));
+            }
+            sql.append(")");
+        }
+        sql.append(")");
+    }
+}
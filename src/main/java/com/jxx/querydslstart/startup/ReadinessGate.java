@@ -0,0 +1,81 @@
+package com.jxx.querydslstart.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 백그라운드 시작 작업(데이터 적재 등)이 끝날 때까지 readiness 를 REFUSING_TRAFFIC 으로 유지한다.
+ * Spring Boot 는 ApplicationReadyEvent 직후 ACCEPTING_TRAFFIC 을 발행하는데, 남은 작업이 있으면 바로 되돌린다.
+ * 작업은 context 가 준비되기 전(빈 초기화 중)에 hold 해야 한다.
+ * hold / release / onReadinessChange 는 한 번에 하나씩 실행하고, lock 안에서 계산한 상태를 lock 안에서 발행한다.
+ * (그렇지 않으면 release 의 ACCEPTING 다음에 onReadinessChange 의 REFUSING 이 발행되어 계속 준비되지 않은 상태로 남을 수 있다.)
+ */
+@Slf4j
+@Component
+public class ReadinessGate {
+
+    private final ApplicationEventPublisher publisher;
+    private final Set<String> pending = new HashSet<>();
+    private boolean applicationReady;
+
+    public ReadinessGate(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    public synchronized void hold(String task) {
+        boolean wasEmpty = pending.isEmpty();
+        if (pending.add(task) && wasEmpty && applicationReady) {
+            log.info("startup task {} started after ready. refusing traffic", task);
+            AvailabilityChangeEvent.publish(publisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    public synchronized void release(String task) {
+        boolean removed = pending.remove(task);
+        notifyAll();
+        if (removed && pending.isEmpty() && applicationReady) {
+            log.info("startup tasks finished. accepting traffic");
+            AvailabilityChangeEvent.publish(publisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    /**
+     * task 를 제외한 다른 작업이 모두 끝날 때까지 기다린다. (ex. 데이터 적재가 끝난 뒤 warm-up)
+     * @return timeout 안에 끝났으면 true
+     */
+    public synchronized boolean awaitOthers(String task, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (pending.stream().anyMatch(other -> !other.equals(task))) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    public synchronized Set<String> pending() {
+        return new TreeSet<>(pending);
+    }
+
+    @EventListener
+    public synchronized void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC || event.getSource() == this) {
+            return;
+        }
+        applicationReady = true;
+        if (!pending.isEmpty()) {
+            log.info("waiting for startup tasks {} before accepting traffic", pending());
+            AvailabilityChangeEvent.publish(publisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.jxx.querydslstart.startup;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * team, member 테이블의 H2 CSV 스냅샷. (CSVWRITE / CSVREAD)
+ * 한 번 만들어 두면 JPA 로 한 건씩 persist 하지 않고 insert ... select 한 번으로 테이블을 채운다.
+ */
+public class SeedSnapshot {
+
+    private final Path teamFile;
+    private final Path memberFile;
+
+    public SeedSnapshot(Path directory) {
+        this.teamFile = directory.resolve("team.csv");
+        this.memberFile = directory.resolve("member.csv");
+    }
+
+    public boolean exists() {
+        return Files.isRegularFile(teamFile) && Files.isRegularFile(memberFile);
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 옮겨서, 중간에 실패해도 반쯤 쓴 스냅샷이 남지 않게 한다.
+     */
+    public void write(JdbcTemplate jdbcTemplate) {
+        try {
+            Files.createDirectories(teamFile.getParent());
+            write(jdbcTemplate, teamFile, "select id, name from team order by id");
+            write(jdbcTemplate, memberFile, "select member_id, username, age, team_id from member order by member_id");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return 복원한 회원 수
+     */
+    public int restore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        Integer restored = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("insert into team (id, name) select * from csvread(?)", teamFile.toString());
+            int members = jdbcTemplate.update("insert into member (member_id, username, age, team_id) select * from csvread(?)",
+                    memberFile.toString());
+
+            // 스냅샷의 id 다음부터 발급하도록 시퀀스를 옮긴다. (이미 더 앞서 있으면 그대로 - 발급된 블록과 겹치지 않게)
+            restartSequence(jdbcTemplate, "team_seq", "select coalesce(max(id), 0) from team");
+            restartSequence(jdbcTemplate, "member_seq", "select coalesce(max(member_id), 0) from member");
+            return members;
+        });
+        return restored == null ? 0 : restored;
+    }
+
+    private static void write(JdbcTemplate jdbcTemplate, Path file, String query) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        jdbcTemplate.queryForObject("call csvwrite(?, ?)", Integer.class, temp.toString(), query);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void restartSequence(JdbcTemplate jdbcTemplate, String sequence, String maxIdQuery) {
+        Long maxId = jdbcTemplate.queryForObject(maxIdQuery, Long.class);
+        Long next = jdbcTemplate.queryForObject("select next value for " + sequence, Long.class);
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + Math.max(maxId + 1, next));
+    }
+}
@@ -0,0 +1,167 @@
+package com.jxx.querydslstart.startup;
+
+import com.jxx.querydslstart.entity.QHello;
+import com.jxx.querydslstart.entity.QMember;
+import com.jxx.querydslstart.entity.QTeam;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 시작 단계별 소요 시간.
+ * - context 시작 단계(빈 생성, entityManagerFactory 초기화 등)는 main 에서 설정한 BufferingApplicationStartup 이 기록한다.
+ * - context 시작 후 백그라운드에서 도는 작업(데이터 적재 등)은 track 으로 따로 기록한다.
+ *   BufferingApplicationStartup 은 단계의 부모를 스레드 구분 없이 잡으므로 섞지 않는다.
+ * 요청을 받기 시작할 때(readiness ACCEPTING_TRAFFIC) 오래 걸린 단계를 로그로 남긴다.
+ */
+@Slf4j
+@Component
+public class StartupProfiler {
+
+    private static final int LOGGED_STEPS = 10;
+
+    private final ApplicationStartup applicationStartup;
+    private final ReadinessGate readinessGate;
+    private final List<StartupReport.Step> background = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean logged = new AtomicBoolean();
+    private final long startedAt;
+
+    public StartupProfiler(ApplicationStartup applicationStartup, ReadinessGate readinessGate) {
+        this.applicationStartup = applicationStartup;
+        this.readinessGate = readinessGate;
+        this.startedAt = applicationStartup instanceof BufferingApplicationStartup buffering
+                ? buffering.getBufferedTimeline().getStartTime().toEpochMilli()
+                : ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    /**
+     * Q 클래스는 처음 참조될 때 초기화되므로 첫 요청이 그 비용을 낸다. 시작 단계에서 초기화하고 시간을 기록한다.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void initQuerydslMetamodel() {
+        StartupStep step = applicationStartup.start("querydsl.metamodel.init");
+        step.tag("classes", String.join(",", QMember.member.toString(), QTeam.team.toString(), QHello.hello.toString()));
+        step.end();
+    }
+
+    public Phase track(String name) {
+        return new Phase(name);
+    }
+
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC
+                && readinessGate.pending().isEmpty()
+                && logged.compareAndSet(false, true)) {
+            log(report(LOGGED_STEPS));
+        }
+    }
+
+    /**
+     * @param limit selfMillis 가 긴 순서로 몇 개까지 (0 이하면 전부, 시작 순서대로)
+     */
+    public StartupReport report(int limit) {
+        if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            return new StartupReport(false, 0, List.of(), List.copyOf(background));
+        }
+
+        StartupTimeline timeline = buffering.getBufferedTimeline();
+        Instant startTime = timeline.getStartTime();
+        Map<Long, Long> childMillis = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null) {
+                childMillis.merge(parentId, event.getDuration().toMillis(), Long::sum);
+            }
+        }
+
+        List<StartupReport.Step> steps = new ArrayList<>();
+        long totalMillis = 0;
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            StartupStep startupStep = event.getStartupStep();
+            long duration = event.getDuration().toMillis();
+            Map<String, String> tags = new LinkedHashMap<>();
+            startupStep.getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+            steps.add(new StartupReport.Step(
+                    startupStep.getName(),
+                    tags,
+                    Duration.between(startTime, event.getStartTime()).toMillis(),
+                    duration,
+                    Math.max(0, duration - childMillis.getOrDefault(startupStep.getId(), 0L))));
+            totalMillis = Math.max(totalMillis, Duration.between(startTime, event.getEndTime()).toMillis());
+        }
+
+        if (limit > 0) {
+            steps = steps.stream()
+                    .sorted(Comparator.comparingLong(StartupReport.Step::getSelfMillis).reversed())
+                    .limit(limit)
+                    .toList();
+        } else {
+            steps.sort(Comparator.comparingLong(StartupReport.Step::getStartOffsetMillis));
+        }
+        return new StartupReport(true, totalMillis, steps, List.copyOf(background));
+    }
+
+    private void log(StartupReport report) {
+        if (!report.isRecorded()) {
+            log.info("startup steps are not recorded (BufferingApplicationStartup not set). background={}", summary(report.getBackground()));
+            return;
+        }
+        StringBuilder message = new StringBuilder("startup took ").append(report.getTotalMillis()).append("ms. slowest steps:");
+        for (StartupReport.Step step : report.getSteps()) {
+            message.append("\n  ").append(step.getSelfMillis()).append("ms (total ").append(step.getDurationMillis())
+                    .append("ms) ").append(step.getName()).append(' ').append(step.getTags());
+        }
+        message.append("\nbackground: ").append(summary(report.getBackground()));
+        log.info(message.toString());
+    }
+
+    private static String summary(List<StartupReport.Step> steps) {
+        return steps.stream().map(step -> step.getName() + "=" + step.getDurationMillis() + "ms").toList().toString();
+    }
+
+    /**
+     * try-with-resources 로 감싸서 백그라운드 작업 시간을 기록한다.
+     */
+    public class Phase implements AutoCloseable {
+
+        private final String name;
+        private final long phaseStartedAt = System.currentTimeMillis();
+        private final Map<String, String> tags = new LinkedHashMap<>();
+
+        private Phase(String name) {
+            this.name = name;
+        }
+
+        public Phase tag(String key, Object value) {
+            tags.put(key, String.valueOf(value));
+            return this;
+        }
+
+        @Override
+        public void close() {
+            long now = System.currentTimeMillis();
+            long duration = now - phaseStartedAt;
+            background.add(new StartupReport.Step(name, tags, phaseStartedAt - startedAt, duration, duration));
+        }
+    }
+}
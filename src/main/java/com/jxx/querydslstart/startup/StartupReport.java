@@ -0,0 +1,30 @@
+package com.jxx.querydslstart.startup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class StartupReport {
+
+    private final boolean recorded;
+    private final long totalMillis;
+    private final List<Step> steps;
+    private final List<Step> background;
+
+    /**
+     * selfMillis - 하위 단계(ex. 의존하는 빈 생성)를 뺀 이 단계만의 시간
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Step {
+        private final String name;
+        private final Map<String, String> tags;
+        private final long startOffsetMillis;
+        private final long durationMillis;
+        private final long selfMillis;
+    }
+}
@@ -0,0 +1,30 @@
+package com.jxx.querydslstart.startup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * coldMicros - 처음 한 번 실행한 시간, warmMicros - 마지막 10% 반복의 평균
+ */
+@Getter
+@AllArgsConstructor
+public class WarmUpReport {
+
+    private final boolean completed;
+    private final int iterations;
+    private final long elapsedMillis;
+    private final Map<String, Query> queries;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Query {
+        private final long coldMicros;
+        private final long warmMicros;
+
+        public double getSpeedup() {
+            return warmMicros == 0 ? 0 : (double) coldMicros / warmMicros;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.jxx.querydslstart.startup;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.repository.MemberJpaRepository;
+import com.jxx.querydslstart.repository.MemberRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청을 받기 전에 /v1 ~ /v3 와 같은 검색을 실제 repository 로 반복 실행해서
+ * JIT, Hibernate 쿼리 plan cache, 커넥션 풀을 미리 데운다. 끝날 때까지 readiness 를 막는다.
+ * 기본은 꺼져 있다. (warmup.enabled=true)
+ *
+ * 데이터 적재 같은 다른 시작 작업이 끝난 뒤 시작하고, iterations 번 반복하거나 timeout 이 지나면 멈춘다.
+ * 쿼리 종류별로 첫 실행 시간과 마지막 10% 반복의 평균을 기록한다. (GET /admin/warmup)
+ */
+@Slf4j
+@Component
+public class WarmUpRunner {
+
+    static final String TASK = "warmup";
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final MemberRepository memberRepository;
+    private final ReadinessGate readinessGate;
+    private final StartupProfiler startupProfiler;
+    private final boolean enabled;
+    private final int iterations;
+    private final long timeoutMillis;
+
+    private volatile WarmUpReport report;
+
+    public WarmUpRunner(MemberJpaRepository memberJpaRepository,
+                        MemberRepository memberRepository,
+                        ReadinessGate readinessGate,
+                        StartupProfiler startupProfiler,
+                        @Value("${warmup.enabled:false}") boolean enabled,
+                        @Value("${warmup.iterations:200}") int iterations,
+                        @Value("${warmup.timeout-ms:30000}") long timeoutMillis) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.memberRepository = memberRepository;
+        this.readinessGate = readinessGate;
+        this.startupProfiler = startupProfiler;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            readinessGate.hold(TASK);
+        }
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmUpInBackground() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                readinessGate.awaitOthers(TASK, timeoutMillis);
+                warmUp();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // warm-up 이 실패해도 요청은 받는다.
+                log.warn("warm-up failed", e);
+            } finally {
+                readinessGate.release(TASK);
+            }
+        }, "warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public WarmUpReport report() {
+        return report;
+    }
+
+    WarmUpReport warmUp() {
+        Map<String, Runnable> queries = queries();
+        Map<String, long[]> elapsed = new LinkedHashMap<>();
+        queries.keySet().forEach(name -> elapsed.put(name, new long[iterations]));
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int done = 0;
+        try (StartupProfiler.Phase phase = startupProfiler.track("warmup")) {
+            while (done < iterations && System.nanoTime() < deadline) {
+                for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+                    long queryStart = System.nanoTime();
+                    query.getValue().run();
+                    elapsed.get(query.getKey())[done] = System.nanoTime() - queryStart;
+                }
+                done++;
+            }
+            phase.tag("iterations", done);
+        }
+
+        Map<String, WarmUpReport.Query> result = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> entry : elapsed.entrySet()) {
+            result.put(entry.getKey(), summarize(entry.getValue(), done));
+        }
+        report = new WarmUpReport(done == iterations, done, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), result);
+        result.forEach((name, query) -> log.info("warm-up {} : cold={}us, warm={}us ({}x)",
+                name, query.getColdMicros(), query.getWarmMicros(), String.format("%.1f", query.getSpeedup())));
+        log.info("warm-up finished. iterations={}, elapsed={}ms", done, report.getElapsedMillis());
+        return report;
+    }
+
+    /**
+     * 엔드포인트에서 자주 쓰는 조건 조합. v1 은 결과를 모두 가져오므로 좁은 조건만 사용한다.
+     */
+    private Map<String, Runnable> queries() {
+        MemberSearchCondition byUsername = new MemberSearchCondition("member1", null, null, null);
+        MemberSearchCondition byTeamAndAge = new MemberSearchCondition(null, "teamA", 20, 22);
+        MemberSearchCondition byTeam = new MemberSearchCondition(null, "teamB", null, null);
+        MemberSearchCondition byAge = new MemberSearchCondition(null, null, 30, 40);
+        MemberSearchCondition unfiltered = new MemberSearchCondition();
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            ids.add(id);
+        }
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("v1 username", () -> memberJpaRepository.search(byUsername));
+        queries.put("v1 team+age", () -> memberJpaRepository.search(byTeamAndAge));
+        queries.put("v2 team", () -> memberRepository.searchPageSimple(byTeam, PageRequest.of(1, 20)));
+        queries.put("v2 unfiltered", () -> memberRepository.searchPageSimple(unfiltered, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "age"))));
+        queries.put("v3 age", () -> memberRepository.searchPageComplex(byAge, PageRequest.of(0, 20)));
+        queries.put("v3 unfiltered", () -> memberRepository.searchPageComplex(unfiltered, PageRequest.of(2, 20)));
+        queries.put("lookup", () -> memberJpaRepository.findAllByIds(ids));
+        return queries;
+    }
+
+    private static WarmUpReport.Query summarize(long[] elapsed, int done) {
+        if (done == 0) {
+            return new WarmUpReport.Query(0, 0);
+        }
+        int warmFrom = done - Math.max(1, done / 10);
+        long warmTotal = 0;
+        for (int i = warmFrom; i < done; i++) {
+            warmTotal += elapsed[i];
+        }
+        return new WarmUpReport.Query(elapsed[0] / 1_000, warmTotal / (done - warmFrom) / 1_000);
+    }
+}
@@ -0,0 +1,55 @@
+package com.jxx.querydslstart.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionInterceptorTest {
+
+    private final AdmissionInterceptor interceptor = new AdmissionInterceptor(true, 10, 1, 100, 1.5);
+
+    @Test
+    void expensiveFloodDoesNotStarveCheapLookups() throws Exception {
+        HandlerMethod search = new HandlerMethod(new Handlers(), "search");
+        HandlerMethod lookup = new HandlerMethod(new Handlers(), "lookup");
+
+        // 조건 없는 목록 검색(EXPENSIVE)은 한도의 절반까지만 받는다.
+        for (int i = 0; i < 5; i++) {
+            assertThat(interceptor.preHandle(request("page", "0"), new MockHttpServletResponse(), search)).isTrue();
+        }
+        assertThatThrownBy(() -> interceptor.preHandle(request("page", "0"), new MockHttpServletResponse(), search))
+                .isInstanceOf(AdmissionRejectedException.class);
+
+        // 같은 한도를 쓰는 id 조회(CHEAP)는 남은 자리로 들어온다.
+        for (int i = 0; i < 5; i++) {
+            assertThat(interceptor.preHandle(request("ids", "1"), new MockHttpServletResponse(), lookup)).isTrue();
+        }
+        assertThatThrownBy(() -> interceptor.preHandle(request("ids", "1"), new MockHttpServletResponse(), lookup))
+                .isInstanceOf(AdmissionRejectedException.class);
+
+        assertThat(interceptor.states()).containsOnlyKeys("member");
+        assertThat(interceptor.states().get("member").getInFlight()).isEqualTo(10);
+        assertThat(interceptor.states().get("member").getRejected()).isEqualTo(2);
+    }
+
+    private static MockHttpServletRequest request(String parameter, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/members");
+        request.addParameter(parameter, value);
+        return request;
+    }
+
+    static class Handlers {
+
+        @AdmissionControl(unfilteredCost = Cost.EXPENSIVE)
+        public void search() {
+        }
+
+        @AdmissionControl(cost = Cost.CHEAP)
+        public void lookup() {
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.jxx.querydslstart.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimiterTest {
+
+    @Test
+    void expensiveCallsAreRejectedFirst() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100, 1.5);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(Cost.EXPENSIVE)).isTrue();
+        }
+        assertThat(limiter.tryAcquire(Cost.EXPENSIVE)).isFalse();
+
+        // 남은 자리는 싼 요청이 쓴다.
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(Cost.CHEAP)).isTrue();
+        }
+        assertThat(limiter.tryAcquire(Cost.CHEAP)).isFalse();
+        assertThat(limiter.state().getRejected()).isEqualTo(2);
+    }
+
+    @Test
+    void limitShrinksWhenLatencyGrows() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(20, 2, 100, 1.5);
+        run(limiter, 20, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        int before = limiter.getLimit();
+
+        // 응답 시간이 10배로 늘어난 직후
+        run(limiter, 20, 3, TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(limiter.getLimit()).isLessThan(before / 2);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void limitGrowsWhenBusyAndLatencyIsStable() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 2, 100, 1.5);
+
+        run(limiter, 10, 200, TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    /**
+     * 싼 요청과 비싼 요청이 섞여 있어도 각자의 응답 시간이 그대로면 한도가 줄지 않는다.
+     */
+    @Test
+    void mixedCostsAtConstantLatencyDoNotShrinkLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(20, 2, 100, 1.5);
+        long cheapNanos = TimeUnit.MILLISECONDS.toNanos(2);
+        long expensiveNanos = TimeUnit.MILLISECONDS.toNanos(50);
+
+        for (int round = 0; round < 500; round++) {
+            int cheap = 0;
+            int expensive = 0;
+            for (int i = 0; i < 8; i++) {
+                if (limiter.tryAcquire(Cost.EXPENSIVE)) {
+                    expensive++;
+                }
+                if (limiter.tryAcquire(Cost.CHEAP)) {
+                    cheap++;
+                }
+            }
+            for (int i = 0; i < Math.max(cheap, expensive); i++) {
+                if (i < cheap) {
+                    limiter.release(Cost.CHEAP, cheapNanos, true);
+                }
+                if (i < expensive) {
+                    limiter.release(Cost.EXPENSIVE, expensiveNanos, true);
+                }
+            }
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(20);
+        assertThat(limiter.state().getLongRttMicros()).containsOnlyKeys(Cost.CHEAP, Cost.EXPENSIVE);
+    }
+
+    /**
+     * 동시에 concurrency 개씩 들어와서 latency 만큼 걸린 것으로 기록한다.
+     */
+    private static void run(ConcurrencyLimiter limiter, int concurrency, int rounds, long latencyNanos) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            for (int i = 0; i < concurrency; i++) {
+                if (limiter.tryAcquire(Cost.CHEAP)) {
+                    acquired++;
+                }
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(Cost.CHEAP, latencyNanos, true);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.jxx.querydslstart.cache;
+
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.repository.MemberJpaRepository;
+import com.jxx.querydslstart.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 쓰기 트랜잭션 안에서는 캐시를 사용하지 않으므로, 데이터를 커밋한 뒤 트랜잭션 없이 조회한다.
+ */
+@SpringBootTest
+class UsernameLookupCacheTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    UsernameLookupCache usernameLookupCache;
+
+    @Autowired
+    UsernameBloomFilterInitializer usernameBloomFilterInitializer;
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> em.createQuery("delete from Member").executeUpdate());
+        usernameLookupCache.evictAll();
+    }
+
+    @Test
+    void lookup() {
+        Member member1 = new Member("member1", 10);
+        transactionTemplate.executeWithoutResult(status -> em.persist(member1));
+        UsernameCacheStats before = usernameLookupCache.stats();
+
+        List<Member> first = memberJpaRepository.findByUsername("member1");   // miss
+        List<Member> second = memberJpaRepository.findByUsernameQ("member1"); // hit
+        List<Member> third = memberRepository.findByUsername("member1");      // hit
+        List<Member> absent = memberRepository.findByUsername("nobody");      // bloom filter 에서 걸러짐
+
+        assertThat(first).extracting("id").containsExactly(member1.getId());
+        assertThat(second).extracting("id").containsExactly(member1.getId());
+        assertThat(third).extracting("id").containsExactly(member1.getId());
+        assertThat(absent).isEmpty();
+
+        UsernameCacheStats after = usernameLookupCache.stats();
+        assertThat(after.isBloomFilterReady()).isTrue();
+        assertThat(after.getCacheMisses() - before.getCacheMisses()).isEqualTo(1);
+        assertThat(after.getCacheHits() - before.getCacheHits()).isEqualTo(2);
+        assertThat(after.getBloomNegatives() - before.getBloomNegatives()).isEqualTo(1);
+    }
+
+    @Test
+    void evictOnInsertAndUpdate() {
+        Member member1 = new Member("member1", 10);
+        transactionTemplate.executeWithoutResult(status -> em.persist(member1));
+        assertThat(memberRepository.findByUsername("member1")).hasSize(1);
+
+        // 같은 이름으로 새 회원이 생기면 캐시가 지워진다.
+        Member member2 = new Member("member1", 20);
+        transactionTemplate.executeWithoutResult(status -> em.persist(member2));
+        assertThat(memberRepository.findByUsername("member1")).hasSize(2);
+
+        // 이름이 바뀌면 새 이름도 Bloom filter 에 들어가고, 예전 이름의 캐시는 검증 단계에서 버려진다.
+        transactionTemplate.executeWithoutResult(status -> em.find(Member.class, member2.getId()).setUsername("renamed"));
+        assertThat(memberRepository.findByUsername("member1")).extracting("id").containsExactly(member1.getId());
+        assertThat(memberRepository.findByUsername("renamed")).extracting("id").containsExactly(member2.getId());
+    }
+
+    /**
+     * 결과가 없는 이름은 캐시하지 않고, null 은 캐시를 거치지 않고 조회한다.
+     */
+    @Test
+    void emptyAndNullAreNotCached() {
+        Member ghost = new Member("ghost", 10);
+        transactionTemplate.executeWithoutResult(status -> em.persist(ghost));
+        transactionTemplate.executeWithoutResult(status -> em.remove(em.find(Member.class, ghost.getId())));
+        int cached = usernameLookupCache.stats().getCachedUsernames();
+
+        // Bloom filter 에는 남아 있어서 DB 를 조회하지만 결과는 캐시되지 않는다.
+        assertThat(memberRepository.findByUsername("ghost")).isEmpty();
+        assertThat(usernameLookupCache.stats().getCachedUsernames()).isEqualTo(cached);
+
+        assertThat(memberRepository.findByUsername(null)).isEmpty();
+        assertThat(memberJpaRepository.findByUsernameQ(null)).isEmpty();
+        assertThat(usernameLookupCache.stats().getCachedUsernames()).isEqualTo(cached);
+    }
+
+    /**
+     * rebuild 가 DB 를 읽을 때 아직 커밋되지 않은 회원도 새 Bloom filter 에 들어가야 한다. (false negative 금지)
+     */
+    @Test
+    void rebuildWhileWriteIsUncommitted() throws Exception {
+        CountDownLatch persisted = new CountDownLatch(1);
+        CountDownLatch rebuilt = new CountDownLatch(1);
+        Member member = new Member("lateMember", 10);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            em.persist(member);
+            em.flush();
+            persisted.countDown();
+            await(rebuilt);
+        }));
+
+        await(persisted);
+        usernameBloomFilterInitializer.rebuild(); // 커밋 전이라 DB 에서 읽히지 않는다.
+        rebuilt.countDown();
+        writer.get(10, TimeUnit.SECONDS);
+
+        assertThat(memberRepository.findByUsername("lateMember")).extracting("id").containsExactly(member.getId());
+    }
+
+    /**
+     * rebuild 가 DB 를 읽은 뒤, 교체하기 전에 커밋된 회원
+     */
+    @Test
+    void rebuildWhileWriteCommitsAfterScan() throws Exception {
+        CountDownLatch persisted = new CountDownLatch(1);
+        CountDownLatch scanned = new CountDownLatch(1);
+        Member member = new Member("lateMember", 10);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            em.persist(member);
+            persisted.countDown();
+            await(scanned);
+        }));
+
+        await(persisted);
+        usernameLookupCache.rebuild(10, () -> {
+            scanned.countDown(); // 빈 결과를 읽은 직후 커밋된다.
+            join(writer);
+            return Stream.of("member1");
+        });
+
+        assertThat(memberRepository.findByUsername("lateMember")).extracting("id").containsExactly(member.getId());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void join(CompletableFuture<Void> future) {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
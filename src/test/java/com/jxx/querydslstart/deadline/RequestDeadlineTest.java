@@ -0,0 +1,102 @@
+package com.jxx.querydslstart.deadline;
+
+import com.jxx.querydslstart.repository.support.DeadlineQueryFactory;
+import com.jxx.querydslstart.support.SqlStatementRecorder;
+import com.jxx.querydslstart.support.SqlStatementRecorder.Type;
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+import static com.jxx.querydslstart.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+@Import(SqlStatementRecorder.class)
+class RequestDeadlineTest {
+
+    static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    SqlStatementRecorder recorder;
+
+    @AfterEach
+    void afterEach() {
+        RequestDeadline.clear();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void remainingTimeIsAppliedAsQueryTimeout() {
+        RequestDeadline.start(1500, scheduler);
+
+        JPAQuery<?> query = new DeadlineQueryFactory(em).selectFrom(member);
+
+        // 1.5초 남았으면 올림해서 2초
+        assertThat(query.createQuery().getHints()).containsEntry("org.hibernate.timeout", 2);
+    }
+
+    @Test
+    void expiredDeadlineDoesNotHitDatabase() throws InterruptedException {
+        RequestDeadline.start(1, scheduler);
+        Thread.sleep(20);
+        recorder.clear();
+
+        assertThatThrownBy(() -> new DeadlineQueryFactory(em).selectFrom(member).fetch())
+                .isInstanceOf(DeadlineExceededException.class);
+        recorder.assertCount(Type.SELECT, 0);
+    }
+
+    @Test
+    void expiredDeadlineStopsBulkUpdate() throws InterruptedException {
+        RequestDeadline.start(1, scheduler);
+        Thread.sleep(20);
+        recorder.clear();
+
+        assertThatThrownBy(() -> new DeadlineQueryFactory(em).update(member).set(member.age, 1).execute())
+                .isInstanceOf(DeadlineExceededException.class);
+        recorder.assertCount(Type.UPDATE, 0);
+    }
+
+    @Test
+    void deadlineIsPropagatedToWorkerThreads() throws Exception {
+        RequestDeadline deadline = RequestDeadline.start(1500, scheduler);
+
+        Supplier<RequestDeadline> task = RequestDeadline.propagate(RequestDeadline::current);
+        assertThat(CompletableFuture.supplyAsync(task).get()).isSameAs(deadline);
+        assertThat(CompletableFuture.supplyAsync(RequestDeadline::current).get()).isNull();
+
+        RequestDeadline.clear();
+        RequestDeadline.start(1, scheduler);
+        Thread.sleep(20);
+        Supplier<Object> expired = RequestDeadline.propagate(() -> "queried");
+        assertThatThrownBy(() -> CompletableFuture.supplyAsync(expired).join())
+                .hasCauseInstanceOf(DeadlineExceededException.class);
+    }
+
+    @Test
+    void withoutDeadline() {
+        JPAQuery<?> query = new DeadlineQueryFactory(em).selectFrom(member);
+
+        assertThat(query.createQuery().getHints()).doesNotContainKey("org.hibernate.timeout");
+    }
+}
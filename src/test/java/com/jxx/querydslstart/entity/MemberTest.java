@@ -1,6 +1,7 @@
 package com.jxx.querydslstart.entity;
 
 import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -8,6 +9,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
 @Transactional
 class MemberTest {
@@ -44,4 +47,35 @@ class MemberTest {
         }
 
     }
-}
\ No newline at end of file
+
+    /**
+     * 회원이 많은 팀에 회원을 추가해도 Team.members 를 읽지 않는다. size / contains 는 SQL 로 확인한다.
+     */
+    @Test
+    public void addMemberWithoutInitializingTeamMembers() {
+        Team teamA = new Team("teamA");
+        entityManager.persist(teamA);
+        entityManager.persist(new Member("member1", 10, teamA));
+        entityManager.persist(new Member("member2", 20, teamA));
+        entityManager.flush();
+        entityManager.clear();
+
+        Team findTeam = entityManager.find(Team.class, teamA.getId());
+        Member member3 = new Member("member3", 30, findTeam);
+        entityManager.persist(member3);
+
+        assertThat(Hibernate.isInitialized(findTeam.getMembers())).isFalse();
+        assertThat(findTeam.memberCount()).isEqualTo(3);
+        assertThat(findTeam.hasMember(member3)).isTrue();
+        assertThat(Hibernate.isInitialized(findTeam.getMembers())).isFalse();
+
+        Team teamB = new Team("teamB");
+        entityManager.persist(teamB);
+        member3.changeTeam(teamB);
+        entityManager.flush();
+
+        assertThat(findTeam.memberCount()).isEqualTo(2);
+        assertThat(findTeam.hasMember(member3)).isFalse();
+        assertThat(Hibernate.isInitialized(findTeam.getMembers())).isFalse();
+    }
+}
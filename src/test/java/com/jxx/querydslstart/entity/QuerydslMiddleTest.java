@@ -3,6 +3,7 @@ package com.jxx.querydslstart.entity;
 import com.jxx.querydslstart.dto.MemberDto;
 import com.jxx.querydslstart.dto.QMemberDto;
 import com.jxx.querydslstart.dto.UserDto;
+import com.jxx.querydslstart.repository.support.DirectProjection;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.Predicate;
@@ -173,6 +174,34 @@ public class QuerydslMiddleTest {
                 .fetch();
     }
 
+    /**
+     * 리플렉션 없이 setter, 생성자를 직접 호출한다. 별칭 대신 setter 에 바로 연결
+     */
+    @Test
+    void findDtoByDirectProjection() {
+        List<UserDto> users = queryFactory
+                .select(DirectProjection.bean(UserDto.class, UserDto::new)
+                        .bind(member.username, UserDto::setName)
+                        .bind(member.age, UserDto::setAge)
+                        .build())
+                .from(member)
+                .orderBy(member.username.asc())
+                .fetch();
+
+        List<MemberDto> members = queryFactory
+                .select(DirectProjection.constructor(MemberDto.class,
+                        args -> new MemberDto((String) args[0], (Integer) args[1]),
+                        member.username, member.age))
+                .from(member)
+                .orderBy(member.username.asc())
+                .fetch();
+
+        assertThat(users).extracting("name").containsExactly("member1", "member2", "member3", "member4");
+        assertThat(users).extracting("age").containsExactly(10, 20, 30, 40);
+        assertThat(members).extracting("username").containsExactly("member1", "member2", "member3", "member4");
+        assertThat(members).extracting("age").containsExactly(10, 20, 30, 40);
+    }
+
     /**
      * booleanBuilder 를 이용한 동적 쿼리
      */
@@ -0,0 +1,116 @@
+package com.jxx.querydslstart.entity.support;
+
+import com.jxx.querydslstart.entity.Member;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 쓰기 스레드 1 ~ 64 개에서 id 발급 속도와 member insert 속도를 잰다.
+ * ./gradlew test -Dbenchmark=true -Dbenchmark.ids=1000000 -Dbenchmark.inserts=20000
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StripedBlockIdGeneratorBenchmarkTest {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    private static final int FLUSH_SIZE = 100;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> em.createQuery("delete from Member").executeUpdate());
+    }
+
+    @Test
+    void generateIds() throws Exception {
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator generator = sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Member.class)
+                .getIdentifierGenerator();
+        int total = Integer.getInteger("benchmark.ids", 1_000_000);
+
+        for (int threads : THREADS) {
+            long elapsed = run(threads, () -> {
+                try (SessionImplementor session = sessionFactory.openSession()) {
+                    for (int i = 0; i < total / threads; i++) {
+                        generator.generate(session, null);
+                    }
+                }
+            });
+            System.out.printf("ids     threads = %2d, %,12d ids/s%n", threads, total * 1_000_000_000L / elapsed);
+        }
+    }
+
+    @Test
+    void insertMembers() throws Exception {
+        int total = Integer.getInteger("benchmark.inserts", 20_000);
+
+        for (int threads : THREADS) {
+            long elapsed = run(threads, () -> {
+                EntityManager writer = emf.createEntityManager();
+                try {
+                    writer.getTransaction().begin();
+                    for (int i = 0; i < total / threads; i++) {
+                        writer.persist(new Member("bench" + i, i % 100));
+                        if ((i + 1) % FLUSH_SIZE == 0) {
+                            writer.flush();
+                            writer.clear();
+                        }
+                    }
+                    writer.getTransaction().commit();
+                } finally {
+                    writer.close();
+                }
+            });
+            System.out.printf("inserts threads = %2d, %,12d rows/s%n", threads, total * 1_000_000_000L / elapsed);
+            afterEach();
+        }
+    }
+
+    private long run(int threads, Runnable writer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    writer.run();
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - begin;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
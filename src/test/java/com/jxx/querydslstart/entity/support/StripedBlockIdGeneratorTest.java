@@ -0,0 +1,82 @@
+package com.jxx.querydslstart.entity.support;
+
+import com.jxx.querydslstart.entity.Member;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StripedBlockIdGeneratorTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> em.createQuery("delete from Member").executeUpdate());
+    }
+
+    @Test
+    void blockPerThread() {
+        StripedBlockIdGenerator generator = generator();
+        try (SessionImplementor session = emf.unwrap(SessionFactoryImplementor.class).openSession()) {
+            long first = (Long) generator.generate(session, null);
+            for (int i = 1; i < generator.getBlockSize(); i++) {
+                assertThat(generator.generate(session, null)).isEqualTo(first + i); // 블록 안에서는 DB 를 조회하지 않고 연속된 값
+            }
+        }
+    }
+
+    @Test
+    void concurrentInsert() throws Exception {
+        int threads = 8;
+        int membersPerThread = 300;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                    for (int i = 0; i < membersPerThread; i++) {
+                        em.persist(new Member("member" + thread + "-" + i, i));
+                    }
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Long> ids = em.createQuery("select m.id from Member m", Long.class).getResultList();
+        assertThat(ids).hasSize(threads * membersPerThread).doesNotHaveDuplicates();
+    }
+
+    private StripedBlockIdGenerator generator() {
+        return (StripedBlockIdGenerator) emf.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(Member.class)
+                .getIdentifierGenerator();
+    }
+}
@@ -0,0 +1,195 @@
+package com.jxx.querydslstart.event;
+
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.entity.Team;
+import com.jxx.querydslstart.event.EntityChangeEvent.Entity;
+import com.jxx.querydslstart.event.EntityChangeEvent.Type;
+import com.jxx.querydslstart.repository.MemberRepository;
+import com.jxx.querydslstart.repository.TeamMembershipRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.jxx.querydslstart.entity.QMember.member;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class ChangeEventBusTest {
+
+    @Autowired
+    ChangeEventBus changeEventBus;
+
+    @Autowired
+    TeamMembershipRepository teamMembershipRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+
+    @BeforeEach
+    void beforeEach() {
+        changeEventBus.subscribe(subscriber);
+    }
+
+    @AfterEach
+    void afterEach() {
+        changeEventBus.unsubscribe(subscriber);
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    void publishAfterCommit() throws InterruptedException {
+        Member member = transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            Member member1 = new Member("member1", 10, teamA);
+            em.persist(member1);
+            return member1;
+        });
+
+        List<EntityChangeEvent> events = subscriber.take(2);
+        assertThat(events).extracting(EntityChangeEvent::entity, EntityChangeEvent::type)
+                .containsExactlyInAnyOrder(
+                        tuple(Entity.TEAM, Type.INSERT),
+                        tuple(Entity.MEMBER, Type.INSERT));
+        assertThat(events).filteredOn(event -> event.entity() == Entity.MEMBER)
+                .singleElement().extracting(EntityChangeEvent::ids).isEqualTo(List.of(member.getId()));
+    }
+
+    @Test
+    void rolledBackChangesAreNotPublished() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Team("teamA"));
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(subscriber.events.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void bulkUpdateIsPublished() throws InterruptedException {
+        Long[] ids = transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            Member member1 = new Member("member1", 10, teamA);
+            Member member2 = new Member("member2", 20, teamA);
+            em.persist(member1);
+            em.persist(member2);
+            return new Long[]{teamB.getId(), member1.getId(), member2.getId()};
+        });
+        subscriber.take(4);
+
+        transactionTemplate.executeWithoutResult(status ->
+                teamMembershipRepository.moveMembers(List.of(ids[1], ids[2]), ids[0]));
+
+        EntityChangeEvent event = subscriber.take(1).get(0);
+        assertThat(event.bulk()).isTrue();
+        assertThat(event.type()).isEqualTo(Type.UPDATE);
+        assertThat(event.ids()).containsExactly(ids[1], ids[2]);
+    }
+
+    @Test
+    void bulkDeletesArePublishedWithUnknownRows() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Member("member1", 10)));
+        subscriber.take(1);
+
+        memberRepository.deleteAllInBatch();
+        EntityChangeEvent event = subscriber.take(1).get(0);
+        assertThat(event).extracting(EntityChangeEvent::entity, EntityChangeEvent::type).containsExactly(Entity.MEMBER, Type.DELETE);
+        assertThat(event.isUnknownRows()).isTrue();
+
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Member("member2", 20)));
+        subscriber.take(1);
+
+        transactionTemplate.executeWithoutResult(status -> new ChangePublishingQueryFactory(em, changeEventBus)
+                .delete(member)
+                .where(member.username.eq("member2"))
+                .execute());
+        event = subscriber.take(1).get(0);
+        assertThat(event.type()).isEqualTo(Type.DELETE);
+        assertThat(event.isUnknownRows()).isTrue();
+    }
+
+    @Test
+    void failingSubscriberKeepsConsuming() throws InterruptedException {
+        AtomicInteger missed = new AtomicInteger();
+        RecordingSubscriber failing = new RecordingSubscriber() {
+            @Override
+            public void onChanges(List<EntityChangeEvent> batch) {
+                if (batch.stream().anyMatch(event -> event.ids().contains(-1L))) {
+                    throw new IllegalStateException("apply failed");
+                }
+                super.onChanges(batch);
+            }
+
+            @Override
+            public void onMissed(long count) {
+                missed.incrementAndGet();
+                throw new IllegalStateException("rebuild failed");
+            }
+
+            @Override
+            public String name() {
+                return "failing";
+            }
+        };
+        changeEventBus.subscribe(failing);
+        try {
+            changeEventBus.publish(EntityChangeEvent.of(Entity.MEMBER, Type.UPDATE, -1L));
+            Thread.sleep(100);
+            changeEventBus.publish(EntityChangeEvent.of(Entity.MEMBER, Type.UPDATE, 1L));
+
+            assertThat(failing.take(1)).extracting(EntityChangeEvent::ids).containsExactly(List.of(1L));
+            assertThat(missed.get()).isEqualTo(1);
+            assertThat(changeEventBus.stats().getSubscribers().get("failing").getFailures()).isEqualTo(2);
+        } finally {
+            changeEventBus.unsubscribe(failing);
+        }
+    }
+
+    static class RecordingSubscriber implements ChangeSubscriber {
+
+        final BlockingQueue<EntityChangeEvent> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onChanges(List<EntityChangeEvent> batch) {
+            events.addAll(batch);
+        }
+
+        List<EntityChangeEvent> take(int count) throws InterruptedException {
+            List<EntityChangeEvent> taken = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                EntityChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+                assertThat(event).as("change event %d of %d", i + 1, count).isNotNull();
+                taken.add(event);
+            }
+            return taken;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.jxx.querydslstart.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeRingBufferTest {
+
+    @Test
+    void pollInBatches() {
+        ChangeRingBuffer<Integer> ringBuffer = new ChangeRingBuffer<>(8);
+        ChangeRingBuffer<Integer>.Cursor cursor = ringBuffer.cursor();
+        for (int i = 0; i < 5; i++) {
+            assertThat(ringBuffer.publish(i)).isTrue();
+        }
+
+        List<List<Integer>> batches = new ArrayList<>();
+        assertThat(cursor.poll(3, batches::add)).isEqualTo(3);
+        assertThat(cursor.poll(3, batches::add)).isEqualTo(2);
+        assertThat(cursor.poll(3, batches::add)).isZero();
+
+        assertThat(batches).containsExactly(List.of(0, 1, 2), List.of(3, 4));
+    }
+
+    @Test
+    void dropInsteadOfOverwritingUnreadEvents() {
+        ChangeRingBuffer<Integer> ringBuffer = new ChangeRingBuffer<>(4);
+        ChangeRingBuffer<Integer>.Cursor cursor = ringBuffer.cursor();
+        for (int i = 0; i < 6; i++) {
+            ringBuffer.publish(i);
+        }
+
+        List<Integer> received = new ArrayList<>();
+        cursor.poll(10, received::addAll);
+
+        assertThat(received).containsExactly(0, 1, 2, 3);
+        assertThat(ringBuffer.getDropped()).isEqualTo(2);
+        assertThat(cursor.takeMissed()).isEqualTo(2);
+        assertThat(cursor.takeMissed()).isZero();
+
+        // 읽은 만큼 다시 쓸 수 있다.
+        assertThat(ringBuffer.publish(6)).isTrue();
+    }
+
+    @Test
+    void concurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        ChangeRingBuffer<long[]> ringBuffer = new ChangeRingBuffer<>(1024);
+        ChangeRingBuffer<long[]>.Cursor cursor = ringBuffer.cursor();
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.execute(() -> {
+                for (long i = 0; i < perProducer; i++) {
+                    long[] event = {producer, i};
+                    while (!ringBuffer.publish(event)) {
+                        Thread.onSpinWait(); // 테스트에서는 버리지 않고 다시 시도
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        long[] lastByProducer = {-1, -1, -1, -1};
+        long received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < (long) producers * perProducer && System.nanoTime() < deadline) {
+            received += cursor.poll(256, batch -> {
+                for (long[] event : batch) {
+                    // 생산자별 순서는 유지된다.
+                    assertThat(event[1]).isEqualTo(lastByProducer[(int) event[0]] + 1);
+                    lastByProducer[(int) event[0]] = event[1];
+                }
+            });
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+
+        assertThat(received).isEqualTo((long) producers * perProducer);
+        assertThat(ringBuffer.getPublished()).isEqualTo(received);
+    }
+}
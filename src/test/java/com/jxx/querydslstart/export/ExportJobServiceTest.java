@@ -0,0 +1,168 @@
+package com.jxx.querydslstart.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 워커 스레드가 데이터를 읽을 수 있도록 트랜잭션 없이 커밋하고, 끝나면 지운다.
+ */
+@SpringBootTest(properties = {
+        "export.job.chunk-size=2",
+        "export.job.workers=1",
+        "export.job.queue-capacity=1"
+})
+class ExportJobServiceTest {
+
+    @TempDir
+    static Path jobDir;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("export.job.dir", jobDir::toString);
+    }
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ExportJobService exportJobService;
+
+    @Autowired
+    ExportJobStore exportJobStore;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void beforeEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            for (int i = 0; i < 5; i++) {
+                em.persist(new Member("member" + i, i * 10, teamA));
+            }
+        });
+    }
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    void exportJob() throws Exception {
+        ExportJob job = exportJobService.submit(new MemberSearchCondition(null, null, 10, null));
+
+        awaitFinished(job.getId());
+
+        assertThat(job.getStatus()).isEqualTo(ExportJob.Status.COMPLETED);
+        assertThat(job.getTotalRows()).isEqualTo(4);
+        assertThat(job.getExportedRows()).isEqualTo(4);
+        assertThat(Files.readAllLines(exportJobStore.dataFile(job.getId())))
+                .hasSize(5)
+                .first().isEqualTo(MemberCsvWriter.HEADER.trim());
+    }
+
+    @Test
+    void resumeFromCheckpoint() throws Exception {
+        ExportJob completed = exportJobService.submit(new MemberSearchCondition());
+        awaitFinished(completed.getId());
+        byte[] expected = Files.readAllBytes(exportJobStore.dataFile(completed.getId()));
+        List<String> lines = Files.readAllLines(exportJobStore.dataFile(completed.getId()));
+
+        // header + 2건까지 쓰고 checkpoint 를 남긴 뒤, 다음 청크 일부를 쓰다가 종료된 상황
+        int bytesWritten = (lines.get(0) + "\n" + lines.get(1) + "\n" + lines.get(2) + "\n").getBytes(StandardCharsets.UTF_8).length;
+        ExportCheckpoint checkpoint = objectMapper.readValue(objectMapper.writeValueAsString(completed.toCheckpoint()), ExportCheckpoint.class);
+        checkpoint.setId("resumed");
+        checkpoint.setStatus(ExportJob.Status.RUNNING);
+        checkpoint.setExportedRows(2);
+        checkpoint.setLastMemberId(Long.parseLong(lines.get(2).split(",")[0]));
+        checkpoint.setBytesWritten(bytesWritten);
+        exportJobStore.save(checkpoint);
+        Files.write(exportJobStore.dataFile("resumed"), concat(Arrays.copyOf(expected, bytesWritten), "garbage".getBytes()));
+
+        exportJobService.resumeJobs();
+        awaitFinished("resumed");
+
+        ExportJob resumed = exportJobService.findJob("resumed").orElseThrow();
+        assertThat(resumed.getStatus()).isEqualTo(ExportJob.Status.COMPLETED);
+        assertThat(resumed.getExportedRows()).isEqualTo(5);
+        assertThat(Files.readAllBytes(exportJobStore.dataFile("resumed"))).isEqualTo(expected);
+    }
+
+    @Test
+    void resumeMoreJobsThanQueueCapacity() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            ExportCheckpoint checkpoint = new ExportCheckpoint();
+            checkpoint.setId("pending" + i);
+            checkpoint.setCondition(new MemberSearchCondition());
+            checkpoint.setStatus(ExportJob.Status.RUNNING);
+            exportJobStore.save(checkpoint);
+            assertThat(ExportJob.from(checkpoint).getStatus()).isEqualTo(ExportJob.Status.QUEUED); // 워커가 시작하기 전까지
+        }
+
+        exportJobService.resumeJobs(); // 워커 1 + 대기열 1 을 넘는 작업은 거절되지 않고 기다린다.
+
+        for (int i = 0; i < 5; i++) {
+            awaitFinished("pending" + i);
+            assertThat(exportJobService.findJob("pending" + i).orElseThrow().getStatus()).isEqualTo(ExportJob.Status.COMPLETED);
+            assertThat(Files.readAllLines(exportJobStore.dataFile("pending" + i))).hasSize(6);
+        }
+    }
+
+    @Test
+    void pruneFinishedJobsAfterRetention() throws Exception {
+        ExportJob job = exportJobService.submit(new MemberSearchCondition());
+        awaitFinished(job.getId());
+
+        exportJobService.pruneFinished(job.getFinishedAt() + 1_000);
+        assertThat(exportJobService.findJob(job.getId())).isPresent();
+
+        exportJobService.pruneFinished(job.getFinishedAt() + TimeUnit.HOURS.toMillis(24));
+        assertThat(exportJobService.findJob(job.getId())).isEmpty();
+        assertThat(exportJobStore.dataFile(job.getId())).doesNotExist();
+    }
+
+    private void awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (exportJobService.findJob(jobId).map(ExportJob::isFinished).orElse(false)) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("export job not finished: " + jobId);
+    }
+
+    private byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
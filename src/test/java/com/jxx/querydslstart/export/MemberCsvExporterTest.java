@@ -0,0 +1,58 @@
+package com.jxx.querydslstart.export;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberCsvExporterTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberCsvExporter memberCsvExporter;
+
+    @Test
+    void export() throws IOException {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("mem,ber\"2", 20, teamA);
+        Member member3 = new Member("member3", 30);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportResult result = memberCsvExporter.export(new MemberSearchCondition(), out);
+
+        assertThat(result.getRows()).isEqualTo(3);
+        assertThat(lines(out)).containsExactly(
+                "member_id,username,age,team_id,team_name",
+                member1.getId() + ",member1,10," + teamA.getId() + ",teamA",
+                member2.getId() + ",\"mem,ber\"\"2\",20," + teamA.getId() + ",teamA",
+                member3.getId() + ",member3,30,,");
+    }
+
+    private List<String> lines(ByteArrayOutputStream out) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.jxx.querydslstart.ingest;
+
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "member.batch.size=2")
+class MemberBatchIngesterTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberBatchIngester memberBatchIngester;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+        memberBatchIngester.evictTeams();
+    }
+
+    @Test
+    void ingest() throws IOException {
+        MemberBatchReport report = memberBatchIngester.ingest(ndjson("""
+                {"username":"member1","age":10,"teamName":"teamA"}
+                {"username":"member2","age":20,"teamName":"teamA"}
+
+                {"username":"member3","age":30,"teamName":"teamB"}
+                {"username":"member4","age":40}
+                {"username":"member5","age":50,"teamName":"teamA"}
+                """));
+
+        assertThat(report.getParseError()).isNull();
+        assertThat(report.getBatches()).extracting("rows").containsExactly(2, 2, 1);
+        assertThat(report.getInserted()).isEqualTo(5);
+
+        List<Member> members = em.createQuery("select m from Member m left join fetch m.team order by m.username", Member.class)
+                .getResultList();
+        assertThat(members).extracting("username").containsExactly("member1", "member2", "member3", "member4", "member5");
+        assertThat(members.get(0).getTeam().getId()).isEqualTo(members.get(4).getTeam().getId()); // teamA 는 한 번만 만든다.
+        assertThat(members.get(3).getTeam()).isNull();
+        assertThat(memberRepository.findByUsername("member5")).hasSize(1);
+    }
+
+    @Test
+    void failedBatchIsRolledBack() throws IOException {
+        MemberBatchReport report = memberBatchIngester.ingest(ndjson("""
+                {"username":"member1","age":10,"teamName":"teamA"}
+                {"username":"","age":20,"teamName":"teamA"}
+                {"username":"member3","age":30,"teamName":"teamB"}
+                {"username":"member4"
+                """));
+
+        assertThat(report.getBatches()).extracting("success").containsExactly(false, true);
+        assertThat(report.getParseError()).startsWith("4번째 행");
+        assertThat(report.getInserted()).isEqualTo(1);
+        assertThat(em.createQuery("select m.username from Member m", String.class).getResultList()).containsExactly("member3");
+    }
+
+    private ByteArrayInputStream ndjson(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
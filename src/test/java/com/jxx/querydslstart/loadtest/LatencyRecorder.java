@@ -0,0 +1,54 @@
+package com.jxx.querydslstart.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * 엔드포인트 하나의 응답 시간(나노초)을 모은다. 요청이 끝나는 스레드에서 동시에 호출된다.
+ */
+class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int size;
+    private long errors;
+
+    synchronized void record(long latencyNanos) {
+        if (size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2);
+        }
+        latencies[size++] = latencyNanos;
+    }
+
+    synchronized void recordError(long latencyNanos) {
+        errors++;
+        record(latencyNanos);
+    }
+
+    synchronized Summary summarize(long durationNanos) {
+        long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+        return new Summary(size, errors, size * 1_000_000_000.0 / durationNanos,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                size > 0 ? sorted[size - 1] : 0);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    record Summary(long requests, long errors, double throughput, long p50, long p99, long p999, long max) {
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d, errors=%d, throughput=%.1f req/s, p50=%.2fms, p99=%.2fms, p999=%.2fms, max=%.2fms",
+                    requests, errors, throughput, millis(p50), millis(p99), millis(p999), millis(max));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.jxx.querydslstart.loadtest;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * /v1, /v2, /v3 members 에 검색 조건을 섞어서 정해진 속도로 요청하고 엔드포인트별 처리량과 p50/p99/p999 를 출력한다.
+ * 내장 H2 에 데이터를 넣고 실제 포트로 앱을 띄워서 실행한다.
+ *
+ * ./gradlew test --tests '*MemberEndpointLoadTest' -Dloadtest=true \
+ *     -Dloadtest.members=100000 -Dloadtest.teams=100 -Dloadtest.rate=200 -Dloadtest.duration=30
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class MemberEndpointLoadTest {
+
+    private static final int MEMBERS = Integer.getInteger("loadtest.members", 100_000);
+    private static final int TEAMS = Integer.getInteger("loadtest.teams", 100);
+    private static final double RATE = Double.parseDouble(System.getProperty("loadtest.rate", "200"));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration", 30));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup", 10));
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void beforeEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createNativeQuery("delete from member").executeUpdate();
+            em.createNativeQuery("delete from team").executeUpdate();
+            em.createNativeQuery("insert into team (id, name) select x, 'team' || x from system_range(1, " + TEAMS + ")")
+                    .executeUpdate();
+            em.createNativeQuery("insert into member (member_id, username, age, team_id) " +
+                            "select x, 'member' || x, mod(x, 100), 1 + mod(x, " + TEAMS + ") from system_range(1, " + MEMBERS + ")")
+                    .executeUpdate();
+        });
+    }
+
+    @Test
+    void load() {
+        System.out.printf("==== load test: members=%d, teams=%d, rate=%.0f req/s, duration=%s%n", MEMBERS, TEAMS, RATE, DURATION);
+
+        new OpenLoopLoadGenerator().run(RATE, WARMUP, this::nextRequest); // JIT, plan cache, connection pool 준비
+        Map<String, LatencyRecorder.Summary> result = new OpenLoopLoadGenerator().run(RATE, DURATION, this::nextRequest);
+
+        result.forEach((endpoint, summary) -> System.out.println(endpoint + " : " + summary));
+        assertThat(result).isNotEmpty();
+    }
+
+    /**
+     * 엔드포인트와 검색 조건 조합 - v1 은 결과를 모두 가져오므로 좁은 조건만 사용한다.
+     */
+    private OpenLoopLoadGenerator.Request nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int dice = random.nextInt(100);
+        String team = "team" + (1 + random.nextInt(TEAMS));
+        int age = random.nextInt(90);
+        int page = random.nextInt(50);
+
+        if (dice < 20) {
+            return request("v1 username", "/v1/members?username=member" + (1 + random.nextInt(MEMBERS)));
+        }
+        if (dice < 35) {
+            return request("v1 team+age", "/v1/members?teamName=" + team + "&ageGoe=" + age + "&ageLoe=" + (age + 2));
+        }
+        if (dice < 55) {
+            return request("v2 team", "/v2/members?teamName=" + team + "&page=" + page + "&size=20");
+        }
+        if (dice < 70) {
+            return request("v2 unfiltered", "/v2/members?page=" + page + "&size=20&sort=age,desc");
+        }
+        if (dice < 90) {
+            return request("v3 age", "/v3/members?ageGoe=" + age + "&ageLoe=" + (age + 10) + "&page=" + page + "&size=20");
+        }
+        return request("v3 unfiltered", "/v3/members?page=" + page + "&size=20");
+    }
+
+    private OpenLoopLoadGenerator.Request request(String endpoint, String path) {
+        return new OpenLoopLoadGenerator.Request(endpoint, URI.create("http://localhost:" + port + path));
+    }
+}
@@ -0,0 +1,80 @@
+package com.jxx.querydslstart.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 정해진 속도(rate)로 요청을 보내는 open-loop 부하 생성기.
+ * 응답을 기다리지 않고 예정된 시각에 요청을 보내며, 응답 시간은 실제 전송 시각이 아니라 "예정된 시각"부터 잰다.
+ * 서버가 느려져 요청이 밀려도 그만큼 대기 시간이 결과에 포함되므로 coordinated omission 이 생기지 않는다.
+ */
+class OpenLoopLoadGenerator {
+
+    private final HttpClient client;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    OpenLoopLoadGenerator() {
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * @param mix 요청마다 호출해서 (엔드포인트 이름, URI) 를 만든다.
+     */
+    Map<String, LatencyRecorder.Summary> run(double requestsPerSecond, Duration duration, Supplier<Request> mix) {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        ConcurrentLinkedQueue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+
+        long intervalNanos = (long) (1_000_000_000 / requestsPerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Request request = mix.get();
+            LatencyRecorder recorder = recorders.computeIfAbsent(request.endpoint(), key -> new LatencyRecorder());
+            HttpRequest httpRequest = HttpRequest.newBuilder(request.uri()).timeout(Duration.ofSeconds(30)).GET().build();
+            inFlight.add(client.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - intended;
+                        if (error != null || response.statusCode() >= 400) {
+                            recorder.recordError(latency);
+                        } else {
+                            recorder.record(latency);
+                        }
+                    }));
+        }
+
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        Map<String, LatencyRecorder.Summary> summaries = new LinkedHashMap<>();
+        recorders.forEach((endpoint, recorder) -> summaries.put(endpoint, recorder.summarize(elapsed)));
+        return summaries;
+    }
+
+    record Request(String endpoint, URI uri) {
+    }
+}
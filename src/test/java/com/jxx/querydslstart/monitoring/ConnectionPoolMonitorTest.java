@@ -0,0 +1,54 @@
+package com.jxx.querydslstart.monitoring;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.repository.MemberRepository;
+import com.jxx.querydslstart.monitoring.ConnectionPoolMonitor.UsageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ConnectionPoolMonitorTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    ConnectionPoolMonitor connectionPoolMonitor;
+
+    @AfterEach
+    void afterEach() {
+        memberRepository.deleteAllInBatch();
+        connectionPoolMonitor.clear();
+    }
+
+    @Test
+    void statementType() {
+        assertThat(ConnectionPoolMonitor.type("select count(m1_0.member_id) from member m1_0")).isEqualTo(UsageType.COUNT);
+        assertThat(ConnectionPoolMonitor.type("select m1_0.member_id from member m1_0")).isEqualTo(UsageType.CONTENT);
+        assertThat(ConnectionPoolMonitor.type("insert into member values (?, ?, ?, ?)")).isEqualTo(UsageType.WRITE);
+        assertThat(ConnectionPoolMonitor.type("call next value for member_seq")).isEqualTo(UsageType.OTHER);
+    }
+
+    @Test
+    void recordUsageByType() {
+        memberRepository.save(new Member("member1", 10));
+        connectionPoolMonitor.clear();
+
+        memberRepository.searchPageComplex(new MemberSearchCondition(), PageRequest.of(0, 10));
+
+        Map<String, ConnectionPoolReport.Usage> usage = connectionPoolMonitor.usage();
+        assertThat(usage.get("CONTENT").getStatements().getCount()).isEqualTo(1);
+        assertThat(usage.get("COUNT").getStatements().getCount()).isEqualTo(1);
+        assertThat(connectionPoolMonitor.connectionWait().getCount()).isPositive();
+        assertThat(connectionPoolMonitor.poolState()).isNotNull();
+        assertThat(connectionPoolMonitor.endpoints()).extracting("endpoint").contains("(background)");
+    }
+}
@@ -0,0 +1,63 @@
+package com.jxx.querydslstart.monitoring;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.entity.Team;
+import com.jxx.querydslstart.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class HibernateStatisticsServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    HibernateStatisticsService hibernateStatisticsService;
+
+    @AfterEach
+    void afterEach() {
+        hibernateStatisticsService.setEnabled(false);
+        hibernateStatisticsService.clear();
+    }
+
+    @Test
+    void disabledByDefault() {
+        assertThat(hibernateStatisticsService.isEnabled()).isFalse();
+    }
+
+    @Test
+    void collectStatistics() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Member member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+        em.flush();
+        em.clear();
+
+        hibernateStatisticsService.setEnabled(true);
+        hibernateStatisticsService.clear();
+
+        memberRepository.search(new MemberSearchCondition());
+        memberRepository.search(new MemberSearchCondition());
+        em.find(Member.class, member1.getId());
+
+        HibernateStatisticsReport report = hibernateStatisticsService.report();
+        assertThat(report.isEnabled()).isTrue();
+        assertThat(report.getQueries()).isNotEmpty();
+        assertThat(report.getQueries().get(0).getExecutionCount()).isEqualTo(2);
+        assertThat(report.getEntityLoadCount()).isEqualTo(1);
+        assertThat(report.getQueryPlanCacheHitCount() + report.getQueryPlanCacheMissCount()).isGreaterThan(0);
+    }
+}
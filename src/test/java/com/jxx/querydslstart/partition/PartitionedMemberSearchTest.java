@@ -0,0 +1,141 @@
+package com.jxx.querydslstart.partition;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.dto.MemberTeamDto;
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.entity.Team;
+import com.jxx.querydslstart.repository.MemberJpaRepository;
+import com.jxx.querydslstart.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 메인 DB(MemberJpaRepository) 결과와 파티션(PartitionedMemberSearch) 결과를 비교한다.
+ */
+@SpringBootTest(properties = {
+        "member.partition.enabled=true",
+        "member.partition.count=3",
+        "member.partition.url=jdbc:h2:mem:member-partition-test-%d;DB_CLOSE_DELAY=-1",
+        "member.partition.rebuild-on-startup=false",
+        "member.partition.chunk-size=7"
+})
+@Transactional
+class PartitionedMemberSearchTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    PartitionedMemberSearch partitionedMemberSearch;
+
+    @Autowired
+    MemberPartitionLoader memberPartitionLoader;
+
+    @BeforeEach
+    void beforeEach() {
+        for (int t = 0; t < 5; t++) {
+            Team team = new Team("team" + t);
+            em.persist(team);
+            for (int i = 0; i < 10; i++) {
+                em.persist(new Member("member" + t + "-" + i, (i * 7 + t) % 40, team));
+            }
+        }
+        em.persist(new Member("noTeam", 25));
+        em.flush();
+
+        assertThat(memberPartitionLoader.rebuild()).hasSize(3).allMatch(count -> count > 0);
+    }
+
+    @Test
+    void routeByTeamName() {
+        MemberSearchCondition condition = new MemberSearchCondition(null, "team2", 10, null);
+
+        assertThat(partitionedMemberSearch.targets(condition)).hasSize(1);
+        assertThat(partitionedMemberSearch.search(condition))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(memberJpaRepository.search(condition));
+
+        assertThat(partitionedMemberSearch.targets(new MemberSearchCondition(null, "none", null, null))).isEmpty();
+    }
+
+    @Test
+    void scatterGatherPaging() {
+        MemberSearchCondition condition = new MemberSearchCondition(null, null, 5, null);
+        List<MemberTeamDto> expected = memberJpaRepository.search(condition).stream()
+                .sorted(Comparator.comparingInt(MemberTeamDto::getAge).reversed()
+                        .thenComparing(MemberTeamDto::getMemberId, Comparator.reverseOrder()))
+                .toList();
+
+        for (int page = 0; page * 7 < expected.size(); page++) {
+            Page<MemberTeamDto> result = partitionedMemberSearch.searchPage(condition, PageRequest.of(page, 7, Sort.by(Sort.Direction.DESC, "age")));
+
+            assertThat(result.getTotalElements()).isEqualTo(expected.size());
+            assertThat(result.getContent())
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(expected.subList(page * 7, Math.min(page * 7 + 7, expected.size())));
+        }
+        assertThat(partitionedMemberSearch.count(new MemberSearchCondition())).isEqualTo(51);
+    }
+
+    /**
+     * 파티션이 켜져 있어도 기존 검색은 메인 테이블을 읽는다. 아직 커밋되지 않은(복제되지 않은) 회원도 보인다.
+     */
+    @Test
+    void repositorySearchReadsMainTable() {
+        Team team = em.createQuery("select t from Team t where t.name = 'team1'", Team.class).getSingleResult();
+        em.persist(new Member("fresh", 30, team));
+        em.flush();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("fresh");
+        assertThat(memberRepository.search(condition)).extracting(MemberTeamDto::getUsername).containsExactly("fresh");
+        assertThat(memberRepository.searchCount(new MemberSearchCondition())).isEqualTo(52);
+
+        assertThat(partitionedMemberSearch.search(condition)).isEmpty();
+        assertThat(partitionedMemberSearch.count(new MemberSearchCondition())).isEqualTo(51);
+    }
+
+    @Test
+    void searchDuringRebuildSeesAllRows() throws Exception {
+        AtomicBoolean rebuilding = new AtomicBoolean(true);
+        CompletableFuture<List<Long>> counts = CompletableFuture.supplyAsync(() -> {
+            List<Long> seen = new ArrayList<>();
+            while (rebuilding.get()) {
+                seen.add(partitionedMemberSearch.count(new MemberSearchCondition()));
+            }
+            return seen;
+        });
+
+        try {
+            for (int i = 0; i < 20; i++) {
+                memberPartitionLoader.rebuild();
+            }
+        } finally {
+            rebuilding.set(false);
+        }
+
+        assertThat(counts.get(10, TimeUnit.SECONDS)).isNotEmpty().containsOnly(51L);
+    }
+}
@@ -0,0 +1,112 @@
+package com.jxx.querydslstart.repository;
+
+import com.jxx.querydslstart.dto.AgeStatsCondition;
+import com.jxx.querydslstart.dto.AgeStatsCondition.Comparison;
+import com.jxx.querydslstart.dto.AgeStatsCondition.Measure;
+import com.jxx.querydslstart.dto.AgeStatsCondition.Scope;
+import com.jxx.querydslstart.dto.MemberTeamDto;
+import com.jxx.querydslstart.dto.QMemberTeamDto;
+import com.jxx.querydslstart.entity.QMember;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.jxx.querydslstart.entity.QMember.member;
+import static com.jxx.querydslstart.entity.QTeam.team;
+import static com.querydsl.jpa.JPAExpressions.select;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 서브쿼리로 쓴 조회와 집계 결과를 join 하는 searchByAgeStats 의 응답 시간을 비교한다.
+ * 팀 기준은 memberSub.team = member.team 으로 묶은 상관 서브쿼리, 전체 기준은 QuerydslBasicTest.subQueryGoe 와 같은 상관 없는 서브쿼리다.
+ * 팀 통계와 비교하는 상관 서브쿼리는 회원마다 팀 전체를 다시 집계하므로 팀 인원(members / teams)이 많을수록 느려진다.
+ * ./gradlew test --tests '*MemberAgeStatsBenchmarkTest' -Dbenchmark=true -Dbenchmark.members=1000000 -Dbenchmark.teams=10000
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemberAgeStatsBenchmarkTest {
+
+    private static final int ITERATIONS = 3;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    JPAQueryFactory queryFactory;
+    QMember memberSub = new QMember("memberSub");
+
+    @BeforeEach
+    void beforeEach() {
+        queryFactory = new JPAQueryFactory(em);
+
+        int members = Integer.getInteger("benchmark.members", 1_000_000);
+        int teams = Integer.getInteger("benchmark.teams", 10_000);
+        em.createNativeQuery("insert into team (id, name) select x, 'team' || x from system_range(1000001, " + (1_000_000 + teams) + ")")
+                .executeUpdate();
+        em.createNativeQuery("insert into member (member_id, username, age, team_id) " +
+                        "select x, 'bench' || x, mod(x * 7, 100), 1000001 + mod(x, " + teams + ") from system_range(1000001, " + (1_000_000 + members) + ")")
+                .executeUpdate();
+    }
+
+    @Test
+    void aboveTeamAverage() {
+        JPAQuery<MemberTeamDto> before = memberTeam()
+                .where(member.age.gt(select(memberSub.age.avg()).from(memberSub).where(memberSub.team.eq(member.team))));
+
+        compare(new AgeStatsCondition(Scope.TEAM, Measure.AVG, Comparison.ABOVE), before);
+    }
+
+    @Test
+    void atTeamMax() {
+        JPAQuery<MemberTeamDto> before = memberTeam()
+                .where(member.age.eq(select(memberSub.age.max()).from(memberSub).where(memberSub.team.eq(member.team))));
+
+        compare(new AgeStatsCondition(Scope.TEAM, Measure.MAX, Comparison.EQUAL), before);
+    }
+
+    @Test
+    void atLeastGlobalAverage() {
+        JPAQuery<MemberTeamDto> before = memberTeam()
+                .where(member.age.goe(select(memberSub.age.avg()).from(memberSub)));
+
+        compare(new AgeStatsCondition(Scope.GLOBAL, Measure.AVG, Comparison.AT_LEAST), before);
+    }
+
+    private JPAQuery<MemberTeamDto> memberTeam() {
+        return queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .orderBy(member.id.asc());
+    }
+
+    private void compare(AgeStatsCondition condition, JPAQuery<MemberTeamDto> before) {
+        System.out.println("before: " + before);
+        System.out.println("after : " + MemberAgeStatsQueryImpl.sql(condition));
+
+        List<MemberTeamDto> expected = before.fetch();
+        assertThat(memberRepository.searchByAgeStats(condition)).isEqualTo(expected);
+        System.out.printf("rows = %d, before = %.2f ms, after = %.2f ms%n", expected.size(),
+                measure(before::fetch), measure(() -> memberRepository.searchByAgeStats(condition)));
+    }
+
+    private double measure(Supplier<List<MemberTeamDto>> query) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
@@ -0,0 +1,73 @@
+package com.jxx.querydslstart.repository;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * search (MemberTeamDto 목록) 와 searchColumns (primitive 배열) 의 조회 시간과 행당 할당량을 비교한다.
+ * ./gradlew test -Dbenchmark=true -Dbenchmark.members=500000
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemberColumnsBenchmarkTest {
+
+    private static final int ITERATIONS = 5;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    int members;
+
+    @BeforeEach
+    void beforeEach() {
+        members = Integer.getInteger("benchmark.members", 200_000);
+        em.createNativeQuery("insert into team (id, name) select x, 'team' || x from system_range(1000001, 1000100)")
+                .executeUpdate();
+        em.createNativeQuery("insert into member (member_id, username, age, team_id) " +
+                        "select x, 'bench' || x, mod(x, 100), 1000001 + mod(x, 100) from system_range(1000001, " + (1_000_000 + members) + ")")
+                .executeUpdate();
+    }
+
+    @Test
+    void dtoVersusColumns() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        assertThat(memberRepository.searchColumns(condition).getSize())
+                .isEqualTo(memberRepository.search(condition).size());
+
+        run("dto", () -> memberRepository.search(condition).size());
+        run("columns", () -> memberRepository.searchColumns(condition).getSize());
+    }
+
+    private void run(String name, IntSupplier query) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        query.getAsInt(); // warm up
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long rows = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            rows += query.getAsInt();
+        }
+        double millis = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%-8s = %.2f ms, %d bytes/row%n", name, millis, allocated / Math.max(rows, 1));
+    }
+}
@@ -0,0 +1,93 @@
+package com.jxx.querydslstart.repository;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Supplier;
+
+import static com.jxx.querydslstart.entity.QMember.member;
+import static com.jxx.querydslstart.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 기존 count 쿼리(select count(member) ... left join team)와 countQuery 의 응답 시간을 비교한다.
+ * ./gradlew test -Dbenchmark=true -Dbenchmark.members=200000
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemberCountBenchmarkTest {
+
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    EntityManager em;
+
+    JPAQueryFactory queryFactory;
+    MemberDynamicQueryImpl dynamicQuery;
+
+    @BeforeEach
+    void beforeEach() {
+        queryFactory = new JPAQueryFactory(em);
+        dynamicQuery = new MemberDynamicQueryImpl(em);
+
+        int members = Integer.getInteger("benchmark.members", 100_000);
+        em.createNativeQuery("insert into team (id, name) select x, 'team' || x from system_range(1000001, 1000100)")
+                .executeUpdate();
+        em.createNativeQuery("insert into member (member_id, username, age, team_id) " +
+                        "select x, 'bench' || x, mod(x, 100), 1000001 + mod(x, 100) from system_range(1000001, " + (1_000_000 + members) + ")")
+                .executeUpdate();
+    }
+
+    @Test
+    void countWithoutTeamCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition(null, null, 20, 60);
+
+        JPAQuery<Long> before = queryFactory
+                .select(member.count())
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.age.goe(20), member.age.loe(60));
+
+        compare(condition, before);
+    }
+
+    @Test
+    void countWithTeamCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition(null, "team1000050", null, null);
+
+        JPAQuery<Long> before = queryFactory
+                .select(member.count())
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(team.name.eq("team1000050"));
+
+        compare(condition, before);
+    }
+
+    private void compare(MemberSearchCondition condition, JPAQuery<Long> before) {
+        JPAQuery<Long> after = dynamicQuery.countQuery(condition);
+        System.out.println("before: " + before);
+        System.out.println("after : " + after);
+
+        assertThat(after.fetchOne()).isEqualTo(before.fetchOne());
+        System.out.printf("before = %.2f ms, after = %.2f ms%n", measure(before::fetchOne), measure(after::fetchOne));
+    }
+
+    private double measure(Supplier<Long> count) {
+        count.get(); // warm up
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            count.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
@@ -4,12 +4,14 @@ import com.jxx.querydslstart.dto.MemberSearchCondition;
 import com.jxx.querydslstart.dto.MemberTeamDto;
 import com.jxx.querydslstart.entity.Member;
 import com.jxx.querydslstart.entity.Team;
+import com.jxx.querydslstart.support.SqlStatementRecorder;
 import jakarta.persistence.EntityManager;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -19,11 +21,15 @@ import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
+@Import(SqlStatementRecorder.class)
 class MemberJpaRepositoryTest {
 
     @Autowired
     EntityManager em;
 
+    @Autowired
+    SqlStatementRecorder sqlRecorder;
+
     @Autowired
     MemberJpaRepository memberJpaRepository;
 
@@ -97,5 +103,46 @@ class MemberJpaRepositoryTest {
         assertThat(result).extracting("username").containsExactly("member4");
     }
 
+    @Test
+    void findAllByIds() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.flush();
+        em.clear();
+
+        em.find(Member.class, member1.getId()); // 영속성 컨텍스트에 있는 회원 (team 은 프록시)
+
+        sqlRecorder.clear();
+        List<MemberTeamDto> result = memberJpaRepository.findAllByIds(
+                List.of(member3.getId(), member1.getId(), -1L, member2.getId(), member3.getId()));
 
-}
\ No newline at end of file
+        sqlRecorder.assertCount(1); // 5개의 id 를 IN 쿼리 한 번으로 조회
+        assertThat(result).extracting("username").containsExactly("member3", "member1", "member2", "member3");
+        assertThat(result.get(1).getTeamName()).isEqualTo("teamA");
+    }
+
+    @Test
+    void findAllByIdsFromPersistenceContext() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        Member member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+
+        em.flush();
+
+        // 영속성 컨텍스트에 있는 회원은 쿼리 없이 찾는다.
+        sqlRecorder.clear();
+        List<MemberTeamDto> result = memberJpaRepository.findAllByIds(List.of(member1.getId()));
+        sqlRecorder.assertCount(0);
+
+        assertThat(result).extracting("teamName").containsExactly("teamA");
+    }
+}
@@ -1,30 +1,46 @@
 package com.jxx.querydslstart.repository;
 
+import com.jxx.querydslstart.dto.AgeStatsCondition;
+import com.jxx.querydslstart.dto.AgeStatsCondition.Comparison;
+import com.jxx.querydslstart.dto.AgeStatsCondition.Measure;
+import com.jxx.querydslstart.dto.AgeStatsCondition.Scope;
+import com.jxx.querydslstart.dto.AgeStatsDto;
+import com.jxx.querydslstart.dto.MemberColumns;
 import com.jxx.querydslstart.dto.MemberSearchCondition;
 import com.jxx.querydslstart.dto.MemberTeamDto;
 import com.jxx.querydslstart.entity.Member;
 import com.jxx.querydslstart.entity.Team;
+import com.jxx.querydslstart.repository.support.InvalidSortException;
+import com.jxx.querydslstart.support.SqlStatementRecorder;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
+@Import(SqlStatementRecorder.class)
 class MemberRepositoryTest {
 
     @Autowired
     EntityManager em;
 
+    @Autowired
+    SqlStatementRecorder sqlRecorder;
+
     @Autowired
     MemberRepository memberRepository;
 
@@ -99,4 +115,225 @@ class MemberRepositoryTest {
         assertThat(result.getSize()).isEqualTo(3);
         assertThat(result.getContent()).extracting("username").containsExactly("member1","member2","member3");
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchInTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernames(List.of("member1", "member3", "member4", "none"));
+        condition.setTeamNames(List.of("teamB"));
+
+        List<MemberTeamDto> result = memberRepository.search(condition);
+        assertThat(result).extracting("username").containsExactlyInAnyOrder("member3", "member4");
+
+        MemberSearchCondition idCondition = new MemberSearchCondition();
+        idCondition.setMemberIds(List.of(member2.getId(), member4.getId()));
+
+        List<MemberTeamDto> idResult = memberRepository.search(idCondition);
+        assertThat(idResult).extracting("username").containsExactlyInAnyOrder("member2", "member4");
+
+        // 쓸 수 있는 값이 없는 목록 조건은 전체가 아니라 아무것도 조회하지 않는다.
+        MemberSearchCondition blankUsernames = new MemberSearchCondition();
+        blankUsernames.setUsernames(List.of("", " "));
+        assertThat(memberRepository.search(blankUsernames)).isEmpty();
+        assertThat(memberRepository.searchCount(blankUsernames)).isZero();
+
+        MemberSearchCondition nullIds = new MemberSearchCondition();
+        nullIds.setMemberIds(Collections.singletonList(null));
+        assertThat(memberRepository.search(nullIds)).isEmpty();
+
+        MemberSearchCondition emptyTeamNames = new MemberSearchCondition();
+        emptyTeamNames.setTeamNames(List.of());
+        assertThat(memberRepository.search(emptyTeamNames)).isEmpty();
+        assertThat(memberRepository.searchColumns(emptyTeamNames).getSize()).isZero();
+    }
+
+    @Test
+    void searchColumnsTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40));
+        em.persist(new Member("member2", 50, teamB)); // 같은 username
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(15);
+
+        List<MemberTeamDto> expected = memberRepository.search(condition);
+        MemberColumns columns = memberRepository.searchColumns(condition);
+
+        assertThat(columns.getSize()).isEqualTo(4);
+        assertThat(columns.getTeamNames()).containsExactly("teamA", "teamB");
+        assertThat(columns.getUsernames()).containsExactly("member2", "member3", "member4");
+        assertThat(columns.getUsernameCodes()).containsExactly(0, 1, 2, 0);
+        for (int i = 0; i < columns.getSize(); i++) {
+            long memberId = columns.getMemberIds()[i];
+            MemberTeamDto dto = expected.stream().filter(e -> e.getMemberId() == memberId).findFirst().orElseThrow();
+            assertThat(columns.getAges()[i]).isEqualTo(dto.getAge());
+            assertThat(columns.teamName(i)).isEqualTo(dto.getTeamName());
+            assertThat(columns.username(i)).isEqualTo(dto.getUsername());
+            assertThat(columns.getTeamIds()[i]).isEqualTo(dto.getTeamId() != null ? dto.getTeamId() : MemberColumns.NO_TEAM);
+        }
+
+        condition.setTeamNames(List.of("teamB"));
+        assertThat(memberRepository.searchColumns(condition).getTeamNameCodes()).containsExactly(0, 0);
+    }
+
+    @Test
+    void searchByAgeStatsTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member5", 50));
+
+        assertThat(memberRepository.teamAgeStats())
+                .extracting(AgeStatsDto::getTeamName, AgeStatsDto::getMemberCount, AgeStatsDto::getAvgAge, AgeStatsDto::getMaxAge)
+                .containsExactly(tuple("teamA", 2L, 15.0, 20), tuple("teamB", 2L, 35.0, 40));
+        AgeStatsDto global = memberRepository.globalAgeStats();
+        assertThat(global.getMemberCount()).isEqualTo(5);
+        assertThat(global.getAvgAge()).isEqualTo(30.0);
+        assertThat(global.getMaxAge()).isEqualTo(50);
+
+        // 팀이 없는 회원은 팀 통계와 비교하지 않는다. (상관 서브쿼리의 memberSub.team = member.team 과 같다)
+        assertThat(memberRepository.searchByAgeStats(new AgeStatsCondition(Scope.TEAM, Measure.AVG, Comparison.ABOVE)))
+                .extracting("username").containsExactly("member2", "member4");
+        assertThat(memberRepository.searchByAgeStats(new AgeStatsCondition(Scope.TEAM, Measure.MAX, Comparison.EQUAL)))
+                .extracting("teamName").containsExactly("teamA", "teamB");
+        assertThat(memberRepository.searchByAgeStats(new AgeStatsCondition(Scope.GLOBAL, Measure.AVG, Comparison.AT_LEAST)))
+                .extracting("username").containsExactly("member3", "member4", "member5");
+        assertThat(memberRepository.searchByAgeStats(new AgeStatsCondition(Scope.GLOBAL, Measure.MAX, Comparison.EQUAL)))
+                .extracting("username").containsExactly("member5");
+    }
+
+    @Test
+    void searchPageSortTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "age"));
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition, pageRequest);
+
+        assertThat(result.getContent()).extracting("username").containsExactly("member4", "member3", "member2");
+        assertThat(result.getTotalElements()).isEqualTo(4);
+    }
+
+    @Test
+    void searchPageSortRejectTest() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        // 화이트리스트에 없는 속성
+        assertThrows(InvalidSortException.class, () ->
+                memberRepository.searchPageSimple(condition, PageRequest.of(0, 3, Sort.by("team.id"))));
+
+        // 조건 없이 인덱스로 처리할 수 없는 정렬 -> 전체 정렬이 필요하므로 거절
+        assertThrows(InvalidSortException.class, () ->
+                memberRepository.searchPageComplex(condition, PageRequest.of(0, 3, Sort.by("teamName"))));
+
+        // 빈 값만 있는 조건(usernames=&sort=teamName)은 결과를 좁히지 않으므로 거절
+        condition.setUsernames(List.of(""));
+        assertThrows(InvalidSortException.class, () ->
+                memberRepository.searchPageComplex(condition, PageRequest.of(0, 3, Sort.by("teamName"))));
+
+        // 결과를 좁히는 조건이 있으면 허용
+        condition.setUsernames(List.of("member1", "member2"));
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition, PageRequest.of(0, 3, Sort.by("teamName", "age")));
+        assertThat(result.getContent()).isEmpty();
+    }
+
+    @Test
+    void countQueryTest() {
+        MemberDynamicQueryImpl dynamicQuery = new MemberDynamicQueryImpl(em);
+
+        String withoutTeam = dynamicQuery.countQuery(new MemberSearchCondition("member1", null, 10, null)).toString();
+        assertThat(withoutTeam).contains("count(member1.id)").doesNotContain("join");
+
+        String withTeam = dynamicQuery.countQuery(new MemberSearchCondition(null, "teamA", null, null)).toString();
+        assertThat(withTeam).contains("count(member1.id)").contains("join member1.team");
+
+        MemberSearchCondition teamNames = new MemberSearchCondition();
+        teamNames.setTeamNames(List.of("teamA", "teamB"));
+        assertThat(dynamicQuery.countQuery(teamNames).toString()).contains("join member1.team");
+    }
+
+    @Test
+    void searchPageCountTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("member" + i, i, i % 2 == 0 ? teamA : teamB));
+        }
+        em.persist(new Member("noTeam", 5));
+
+        PageRequest pageRequest = PageRequest.of(0, 3);
+
+        assertThat(memberRepository.searchPageSimple(new MemberSearchCondition(), pageRequest).getTotalElements()).isEqualTo(11);
+        assertThat(memberRepository.searchPageComplex(new MemberSearchCondition(null, "teamA", null, null), pageRequest).getTotalElements()).isEqualTo(5);
+        assertThat(memberRepository.searchPageComplexV2(new MemberSearchCondition(null, "teamB", 5, null), pageRequest).getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void searchPageStatementBudget() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 4; i++) {
+            em.persist(new Member("member" + i, i * 10, teamA));
+        }
+        em.flush();
+
+        // 마지막 페이지 - content 크기로 전체 건수를 알 수 있으므로 count 쿼리를 실행하지 않는다.
+        sqlRecorder.clear();
+        memberRepository.searchPageComplexV2(new MemberSearchCondition(), PageRequest.of(0, 10));
+        sqlRecorder.assertCount(1);
+
+        // content + count, team 조건이 없으므로 count 쿼리에는 조인이 없다.
+        sqlRecorder.clear();
+        memberRepository.searchPageComplex(new MemberSearchCondition(null, null, 10, null), PageRequest.of(0, 2));
+        sqlRecorder.assertCount(SqlStatementRecorder.Type.SELECT, 2);
+        sqlRecorder.assertNone(statement -> statement.shape().contains("count(") && statement.shape().contains("join"),
+                "counting with a join");
+    }
+}
@@ -0,0 +1,115 @@
+package com.jxx.querydslstart.repository;
+
+import com.jxx.querydslstart.dto.MemberSearchCondition;
+import com.jxx.querydslstart.repository.support.InvalidSortException;
+import com.jxx.querydslstart.repository.support.MemberSorts;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 정렬/검색 조건 조합별로 H2 실행 계획과 평균 응답 시간을 출력한다.
+ * ./gradlew test -Dbenchmark=true -Dbenchmark.members=200000
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemberSortBenchmarkTest {
+
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        int members = Integer.getInteger("benchmark.members", 100_000);
+        em.createNativeQuery("insert into team (id, name) select x, 'team' || x from system_range(1000001, 1000100)")
+                .executeUpdate();
+        em.createNativeQuery("insert into member (member_id, username, age, team_id) " +
+                        "select x, 'bench' || x, mod(x, 100), 1000001 + mod(x, 100) from system_range(1000001, " + (1_000_000 + members) + ")")
+                .executeUpdate();
+    }
+
+    @Test
+    void sortCombinations() {
+        MemberSearchCondition none = new MemberSearchCondition();
+        MemberSearchCondition age = new MemberSearchCondition(null, null, 20, 30);
+        MemberSearchCondition team = new MemberSearchCondition(null, "team1000050", null, null);
+        MemberSearchCondition usernames = new MemberSearchCondition();
+        usernames.setUsernames(List.of("bench1000010", "bench1000020", "bench1000030"));
+
+        run("unsorted / none", none, Sort.unsorted());
+        run("username / none", none, Sort.by("username"));
+        run("age desc / none", none, Sort.by(Sort.Direction.DESC, "age"));
+        run("id desc / none", none, Sort.by(Sort.Direction.DESC, "id"));
+        run("username / age range", age, Sort.by("username"));
+        run("age / teamName", team, Sort.by("age"));
+        run("teamName / none", none, Sort.by("teamName"));
+        run("age, username / none", none, Sort.by("age", "username"));
+        run("teamName / usernames", usernames, Sort.by("teamName"));
+    }
+
+    private void run(String name, MemberSearchCondition condition, Sort sort) {
+        System.out.println("==== " + name + " (index served = " + MemberSorts.isIndexServed(sort) + ")");
+        System.out.println(explain(condition, sort));
+
+        PageRequest pageRequest = PageRequest.of(10, 20, sort);
+        try {
+            memberRepository.searchPageComplex(condition, pageRequest); // warm up
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                memberRepository.searchPageComplex(condition, pageRequest);
+            }
+            System.out.printf("avg = %.2f ms%n", (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS);
+        } catch (InvalidSortException e) {
+            System.out.println("rejected: " + e.getMessage());
+        }
+    }
+
+    private Object explain(MemberSearchCondition condition, Sort sort) {
+        StringBuilder where = new StringBuilder(" where 1 = 1");
+        if (condition.getAgeGoe() != null) {
+            where.append(" and m.age >= ").append(condition.getAgeGoe()).append(" and m.age <= ").append(condition.getAgeLoe());
+        }
+        if (condition.getTeamName() != null) {
+            where.append(" and t.name = '").append(condition.getTeamName()).append("'");
+        }
+        if (condition.getUsernames() != null) {
+            where.append(condition.getUsernames().stream()
+                    .collect(Collectors.joining("', '", " and m.username in ('", "')")));
+        }
+
+        String orderBy = sort.stream()
+                .map(order -> column(order.getProperty()) + (order.isAscending() ? " asc" : " desc"))
+                .collect(Collectors.joining(", "));
+        String firstDirection = sort.isSorted() && sort.iterator().next().isDescending() ? " desc" : " asc";
+        orderBy = orderBy.isEmpty() ? "m.member_id" + firstDirection : orderBy + ", m.member_id" + firstDirection;
+
+        return em.createNativeQuery("explain select m.member_id, m.username, m.age, t.id, t.name " +
+                        "from member m left join team t on t.id = m.team_id" + where +
+                        " order by " + orderBy + " offset 200 rows fetch first 20 rows only")
+                .getSingleResult();
+    }
+
+    private String column(String property) {
+        return switch (property) {
+            case "username" -> "m.username";
+            case "age" -> "m.age";
+            case "teamName" -> "t.name";
+            default -> "m.member_id";
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package com.jxx.querydslstart.repository;
+
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.entity.Team;
+import com.jxx.querydslstart.support.SqlStatementRecorder;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.jxx.querydslstart.entity.QTeam.team;
+import static com.jxx.querydslstart.support.SqlStatementRecorder.Type.SELECT;
+import static com.jxx.querydslstart.support.SqlStatementRecorder.Type.UPDATE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@Import(SqlStatementRecorder.class)
+class TeamMembershipRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    SqlStatementRecorder sqlRecorder;
+
+    @Autowired
+    TeamMembershipRepository teamMembershipRepository;
+
+    Team teamA;
+    Team teamB;
+    Member member1;
+    Member member2;
+    Member member3;
+
+    @BeforeEach
+    void beforeEach() {
+        teamA = new Team("teamA");
+        teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        member1 = new Member("member1", 10, teamA);
+        member2 = new Member("member2", 20, teamA);
+        member3 = new Member("member3", 30, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void moveWithoutLoadingMembers() {
+        Team findTeamA = em.find(Team.class, teamA.getId());
+
+        sqlRecorder.clear();
+        long moved = teamMembershipRepository.moveMembers(List.of(member1.getId()), teamB.getId());
+
+        assertThat(moved).isEqualTo(1);
+        assertThat(Hibernate.isInitialized(findTeamA.getMembers())).isFalse();
+        sqlRecorder.assertNone(statement -> statement.type() == SELECT && statement.sql().contains("team_id=?"),
+                "loading Team.members");
+        sqlRecorder.assertCount(UPDATE, 1);
+
+        em.clear();
+        assertThat(em.find(Team.class, teamB.getId()).getMembers())
+                .extracting("username").containsExactlyInAnyOrder("member1", "member3");
+    }
+
+    @Test
+    void keepLoadedCollectionsConsistent() {
+        Team findTeamA = em.find(Team.class, teamA.getId());
+        Team findTeamB = em.find(Team.class, teamB.getId());
+        Hibernate.initialize(findTeamA.getMembers());
+        Hibernate.initialize(findTeamB.getMembers());
+        Member findMember1 = em.find(Member.class, member1.getId());
+
+        teamMembershipRepository.moveMembers(team.name.eq("teamA"), teamB.getId());
+
+        assertThat(findMember1.getTeam()).isSameAs(findTeamB);
+        assertThat(findTeamA.getMembers()).isEmpty();
+        assertThat(findTeamB.getMembers()).extracting("username").containsExactlyInAnyOrder("member1", "member2", "member3");
+
+        sqlRecorder.clear();
+        em.flush();
+        sqlRecorder.assertCount(UPDATE, 0); // 벌크 update 로 이미 반영됨
+    }
+
+    @Test
+    void moveAllWithSingleUpdate() {
+        Team findTeamA = em.find(Team.class, teamA.getId());
+        Team findTeamB = em.find(Team.class, teamB.getId());
+        Hibernate.initialize(findTeamB.getMembers());
+        Member findMember1 = em.find(Member.class, member1.getId());
+
+        sqlRecorder.clear();
+        long moved = teamMembershipRepository.moveAllMembers(teamA.getId(), teamB.getId());
+
+        assertThat(moved).isEqualTo(2);
+        sqlRecorder.assertCount(SELECT, 0); // 옮길 회원 id 를 조회하지 않는다.
+        sqlRecorder.assertCount(UPDATE, 1);
+        assertThat(findMember1.getTeam()).isSameAs(findTeamB);
+        assertThat(Hibernate.isInitialized(findTeamA.getMembers())).isFalse();
+
+        em.flush();
+        em.clear();
+        assertThat(em.find(Team.class, teamB.getId()).getMembers())
+                .extracting("username").containsExactlyInAnyOrder("member1", "member2", "member3");
+    }
+
+    @Test
+    void leaveTeam() {
+        long moved = teamMembershipRepository.moveAllMembers(teamB.getId(), null);
+        assertThat(moved).isEqualTo(1);
+
+        em.clear();
+        assertThat(em.find(Member.class, member3.getId()).getTeam()).isNull();
+    }
+}
@@ -0,0 +1,50 @@
+package com.jxx.querydslstart.repository.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static com.jxx.querydslstart.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InClausesTest {
+
+    @Test
+    void paddedSize() {
+        assertThat(InClauses.paddedSize(0)).isEqualTo(0);
+        assertThat(InClauses.paddedSize(1)).isEqualTo(1);
+        assertThat(InClauses.paddedSize(3)).isEqualTo(4);
+        assertThat(InClauses.paddedSize(4)).isEqualTo(4);
+        assertThat(InClauses.paddedSize(5)).isEqualTo(8);
+        assertThat(InClauses.paddedSize(300)).isEqualTo(512);
+    }
+
+    @Test
+    void padWithLastValue() {
+        List<List<String>> chunks = InClauses.paddedChunks(Arrays.asList("a", "b", null, "a", "c"));
+
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0)).containsExactly("a", "b", "c", "c");
+    }
+
+    @Test
+    void splitLargeList() {
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, 1000).boxed().toList());
+
+        List<List<Long>> chunks = InClauses.paddedChunks(ids);
+
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).hasSize(InClauses.MAX_CHUNK_SIZE);
+        assertThat(chunks.get(1)).hasSize(512); // 488 -> 512
+        assertThat(chunks.get(1).get(chunks.get(1).size() - 1)).isEqualTo(1000L);
+    }
+
+    @Test
+    void emptyValuesIsNoCondition() {
+        assertThat(InClauses.in(member.id, List.of())).isNull();
+        assertThat(InClauses.in(member.id, null)).isNull();
+    }
+}
@@ -0,0 +1,81 @@
+package com.jxx.querydslstart.repository.support;
+
+import com.jxx.querydslstart.dto.MemberDto;
+import com.jxx.querydslstart.dto.QMemberDto;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.jxx.querydslstart.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Projections.bean / fields / constructor, @QueryProjection, DirectProjection 의 조회 시간을 비교한다.
+ * 조회 SQL 은 모두 같으므로 차이는 행마다 DTO 를 만드는 비용이다.
+ * ./gradlew test -Dbenchmark=true -Dbenchmark.members=200000
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProjectionBenchmarkTest {
+
+    private static final int ITERATIONS = 10;
+
+    @Autowired
+    EntityManager em;
+
+    JPAQueryFactory queryFactory;
+    int members;
+
+    @BeforeEach
+    void beforeEach() {
+        queryFactory = new JPAQueryFactory(em);
+
+        members = Integer.getInteger("benchmark.members", 100_000);
+        em.createNativeQuery("insert into member (member_id, username, age, team_id) " +
+                        "select x, 'bench' || x, mod(x, 100), null from system_range(1000001, " + (1_000_000 + members) + ")")
+                .executeUpdate();
+    }
+
+    @Test
+    void projectionStyles() {
+        Map<String, Expression<MemberDto>> projections = new LinkedHashMap<>();
+        projections.put("bean", Projections.bean(MemberDto.class, member.username, member.age));
+        projections.put("fields", Projections.fields(MemberDto.class, member.username, member.age));
+        projections.put("constructor", Projections.constructor(MemberDto.class, member.username, member.age));
+        projections.put("queryProjection", new QMemberDto(member.username, member.age));
+        projections.put("direct", DirectProjection.constructor(MemberDto.class,
+                args -> new MemberDto((String) args[0], (Integer) args[1]),
+                member.username, member.age));
+
+        projections.forEach((name, projection) -> assertThat(fetch(projection)).hasSize(members));
+        projections.forEach((name, projection) -> System.out.printf("%-16s = %.2f ms%n", name, measure(projection)));
+    }
+
+    private List<MemberDto> fetch(Expression<MemberDto> projection) {
+        return queryFactory
+                .select(projection)
+                .from(member)
+                .fetch();
+    }
+
+    private double measure(Expression<MemberDto> projection) {
+        fetch(projection); // warm up
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            fetch(projection);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
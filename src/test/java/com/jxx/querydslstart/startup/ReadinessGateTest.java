@@ -0,0 +1,74 @@
+package com.jxx.querydslstart.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadinessGateTest {
+
+    @Test
+    void refusingUntilReleased() {
+        List<ReadinessState> states = new ArrayList<>();
+        ReadinessGate gate = new ReadinessGate(event -> states.add((ReadinessState) ((AvailabilityChangeEvent<?>) event).getState()));
+        gate.hold("seed");
+
+        gate.onReadinessChange(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+        assertThat(states).containsExactly(ReadinessState.REFUSING_TRAFFIC);
+
+        gate.release("seed");
+        assertThat(states).containsExactly(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    /**
+     * Spring Boot 의 ACCEPTING 과 마지막 작업의 release 가 동시에 일어나도 마지막 상태는 ACCEPTING 이어야 한다.
+     */
+    @Test
+    void readyAndReleaseAtTheSameTime() throws InterruptedException {
+        for (int i = 0; i < 2_000; i++) {
+            List<ReadinessState> states = new ArrayList<>();
+            ReadinessGate gate = new ReadinessGate(event -> {
+                synchronized (states) {
+                    states.add((ReadinessState) ((AvailabilityChangeEvent<?>) event).getState());
+                }
+            });
+            gate.hold("seed");
+
+            CountDownLatch start = new CountDownLatch(1);
+            Thread ready = new Thread(() -> {
+                await(start);
+                // ApplicationAvailabilityBean 이 먼저 ACCEPTING 을 기록한 뒤 ReadinessGate 가 이벤트를 받는다.
+                synchronized (states) {
+                    states.add(ReadinessState.ACCEPTING_TRAFFIC);
+                }
+                gate.onReadinessChange(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+            });
+            Thread release = new Thread(() -> {
+                await(start);
+                gate.release("seed");
+            });
+            ready.start();
+            release.start();
+            start.countDown();
+            ready.join();
+            release.join();
+
+            synchronized (states) {
+                assertThat(states.get(states.size() - 1)).as("states %s", states).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
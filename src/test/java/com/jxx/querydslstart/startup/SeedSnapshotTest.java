@@ -0,0 +1,58 @@
+package com.jxx.querydslstart.startup;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SeedSnapshotTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from member");
+            jdbcTemplate.update("delete from team");
+        });
+    }
+
+    @Test
+    void writeAndRestore() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("insert into team (id, name) values (1, 'teamA'), (2, 'teamB')");
+            jdbcTemplate.update("insert into member (member_id, username, age, team_id) " +
+                    "select x, 'member' || x, x, 1 + mod(x, 2) from system_range(1, 100)");
+        });
+        SeedSnapshot snapshot = new SeedSnapshot(directory);
+        assertThat(snapshot.exists()).isFalse();
+        snapshot.write(jdbcTemplate);
+        assertThat(snapshot.exists()).isTrue();
+        afterEach();
+
+        int restored = snapshot.restore(jdbcTemplate, transactionTemplate);
+
+        assertThat(restored).isEqualTo(100);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member m join team t on t.id = m.team_id where t.name = 'teamB'", Long.class))
+                .isEqualTo(50);
+        assertThat(jdbcTemplate.queryForObject("select username from member where member_id = 7", String.class))
+                .isEqualTo("member7");
+        // 스냅샷 다음 id 부터 발급한다.
+        assertThat(jdbcTemplate.queryForObject("select next value for member_seq", Long.class)).isGreaterThan(100);
+    }
+}
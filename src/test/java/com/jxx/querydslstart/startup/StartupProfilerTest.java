@@ -0,0 +1,53 @@
+package com.jxx.querydslstart.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupProfilerTest {
+
+    @Test
+    void selfTimeExcludesChildSteps() throws InterruptedException {
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+        StartupProfiler profiler = new StartupProfiler(applicationStartup, new ReadinessGate(event -> {}));
+
+        StartupStep parent = applicationStartup.start("parent").tag("beanName", "entityManagerFactory");
+        StartupStep child = applicationStartup.start("child");
+        Thread.sleep(50);
+        child.end();
+        parent.end();
+
+        StartupReport report = profiler.report(0);
+        Map<String, StartupReport.Step> steps = report.getSteps().stream()
+                .collect(Collectors.toMap(StartupReport.Step::getName, Function.identity()));
+
+        assertThat(report.isRecorded()).isTrue();
+        assertThat(steps.get("parent").getTags()).containsEntry("beanName", "entityManagerFactory");
+        assertThat(steps.get("parent").getDurationMillis()).isGreaterThanOrEqualTo(50);
+        assertThat(steps.get("parent").getSelfMillis()).isLessThan(50);
+        assertThat(steps.get("child").getSelfMillis()).isGreaterThanOrEqualTo(50);
+        // limit 를 주면 selfMillis 가 긴 순서
+        assertThat(profiler.report(1).getSteps()).extracting(StartupReport.Step::getName).containsExactly("child");
+    }
+
+    @Test
+    void backgroundPhase() {
+        StartupProfiler profiler = new StartupProfiler(ApplicationStartup.DEFAULT, new ReadinessGate(event -> {}));
+
+        try (StartupProfiler.Phase phase = profiler.track("seed")) {
+            phase.tag("mode", "snapshot");
+        }
+
+        StartupReport report = profiler.report(0);
+        assertThat(report.isRecorded()).isFalse();
+        assertThat(report.getBackground()).extracting(StartupReport.Step::getName).containsExactly("seed");
+        assertThat(report.getBackground().get(0).getTags()).containsEntry("mode", "snapshot");
+    }
+}
@@ -0,0 +1,53 @@
+package com.jxx.querydslstart.startup;
+
+import com.jxx.querydslstart.entity.Member;
+import com.jxx.querydslstart.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "warmup.iterations=5")
+class WarmUpRunnerTest {
+
+    @Autowired
+    WarmUpRunner warmUpRunner;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    void warmUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (int i = 0; i < 100; i++) {
+                em.persist(new Member("member" + i, i, i % 2 == 0 ? teamA : teamB));
+            }
+        });
+
+        WarmUpReport report = warmUpRunner.warmUp();
+
+        assertThat(report.isCompleted()).isTrue();
+        assertThat(report.getIterations()).isEqualTo(5);
+        assertThat(report.getQueries()).containsKeys("v1 username", "v2 unfiltered", "v3 unfiltered", "lookup");
+        assertThat(warmUpRunner.report()).isSameAs(report);
+    }
+}
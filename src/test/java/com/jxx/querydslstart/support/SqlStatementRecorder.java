@@ -0,0 +1,122 @@
+package com.jxx.querydslstart.support;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 실행된 SQL 을 기록해서 테스트에서 "이 호출은 SQL 을 몇 번 실행해야 한다" 를 검증한다.
+ * p6spy 가 JdbcEventListener 빈을 자동으로 등록하므로 테스트 클래스에 @Import(SqlStatementRecorder.class) 만 하면 된다.
+ * clear() 를 호출한 스레드의 SQL 만 기록한다. (변경 이벤트 구독자 같은 백그라운드 스레드의 SQL 이 섞이지 않도록)
+ *
+ * <pre>
+ * em.flush();
+ * sqlRecorder.clear();
+ * memberRepository.searchPageComplexV2(condition, pageRequest);
+ * sqlRecorder.assertCount(1);
+ * </pre>
+ */
+public class SqlStatementRecorder extends SimpleJdbcEventListener {
+
+    public enum Type {
+        SELECT, INSERT, UPDATE, DELETE, OTHER
+    }
+
+    public record Statement(Type type, String shape, String sql) {
+    }
+
+    private final List<Statement> statements = new ArrayList<>();
+    private volatile Thread recordingThread;
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        String sql = statementInformation.getSql();
+        if (sql == null || Thread.currentThread() != recordingThread) {
+            return;
+        }
+        synchronized (statements) {
+            statements.add(new Statement(type(sql), shape(sql), sql));
+        }
+    }
+
+    /**
+     * 기록을 비우고, 이후에는 이 메서드를 호출한 스레드의 SQL 만 기록한다.
+     */
+    public void clear() {
+        synchronized (statements) {
+            statements.clear();
+            recordingThread = Thread.currentThread();
+        }
+    }
+
+    public List<Statement> statements() {
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+
+    public List<Statement> statements(Type type) {
+        return statements().stream().filter(statement -> statement.type() == type).toList();
+    }
+
+    public void assertCount(int expected) {
+        assertCount("statements", expected, statement -> true);
+    }
+
+    public void assertCount(Type type, int expected) {
+        assertCount(type.name() + " statements", expected, statement -> statement.type() == type);
+    }
+
+    public void assertNone(Predicate<Statement> condition, String description) {
+        List<Statement> offending = statements().stream().filter(condition).toList();
+        if (!offending.isEmpty()) {
+            throw new AssertionError("expected no statement " + description + " but found " + offending.size() + ":\n" + describe(offending));
+        }
+    }
+
+    private void assertCount(String description, int expected, Predicate<Statement> condition) {
+        List<Statement> matched = statements().stream().filter(condition).toList();
+        if (matched.size() != expected) {
+            throw new AssertionError("expected " + expected + " " + description + " but was " + matched.size() + ":\n" + describe(matched));
+        }
+    }
+
+    private static String describe(List<Statement> statements) {
+        return IntStream.range(0, statements.size())
+                .mapToObj(i -> "  " + (i + 1) + ". [" + statements.get(i).type() + "] " + statements.get(i).shape())
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * 공백을 정리하고 IN (?, ?, ...) 의 파라미터 개수를 지워서 같은 모양의 쿼리를 묶을 수 있게 한다.
+     */
+    static String shape(String sql) {
+        return sql.replaceAll("\\s+", " ")
+                .replaceAll("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)", "(?...)")
+                .trim();
+    }
+
+    static Type type(String sql) {
+        String normalized = sql.replaceAll("/\\*.*?\\*/", "").trim().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("select") || normalized.startsWith("with")) {
+            return Type.SELECT;
+        }
+        if (normalized.startsWith("insert")) {
+            return Type.INSERT;
+        }
+        if (normalized.startsWith("update")) {
+            return Type.UPDATE;
+        }
+        if (normalized.startsWith("delete")) {
+            return Type.DELETE;
+        }
+        return Type.OTHER;
+    }
+}